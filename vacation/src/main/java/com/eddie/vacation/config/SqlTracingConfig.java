@@ -0,0 +1,65 @@
+package com.eddie.vacation.config;
+
+import com.eddie.vacation.service.QueryTracer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Statement tracing in place of spring.jpa.show-sql: the DataSource is wrapped in a
+ * TracingDataSource and each HTTP request tags its statements with "METHOD /pattern".
+ */
+@Configuration
+public class SqlTracingConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<QueryTracer> tracer;
+
+    public SqlTracingConfig(ObjectProvider<QueryTracer> tracer) {
+        this.tracer = tracer;
+    }
+
+    // static, post-processors are created before any regular bean
+    @Bean
+    public static BeanPostProcessor tracingDataSourcePostProcessor(ObjectProvider<QueryTracer> tracer) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof TracingDataSource)) {
+                    return new TracingDataSource(dataSource, tracer::getObject);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        QueryTracer queryTracer = tracer.getIfAvailable();
+        if (queryTracer == null) {
+            return; // web slice tests without the persistence layer
+        }
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                queryTracer.begin(request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI()));
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                    Exception ex) {
+                queryTracer.end();
+            }
+        });
+    }
+}
@@ -0,0 +1,36 @@
+package com.eddie.vacation.config;
+
+import com.eddie.vacation.tenant.CurrentTenantResolver;
+import com.eddie.vacation.tenant.TenantConnectionPools;
+import com.eddie.vacation.tenant.TenantRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Discriminator-based multi-tenancy: Hibernate resolves the tenant of each session from
+ * TenantContext and takes its connections through TenantConnectionPools. Per-tenant
+ * connection limits only apply in multi-tenant mode.
+ */
+@Configuration
+public class TenancyConfig {
+
+    @Bean
+    public TenantConnectionPools tenantConnectionPools(DataSource dataSource, TenantRegistry tenants,
+            @Value("${vacation.tenancy.max-connections-per-tenant:4}") int maxPerTenant,
+            @Value("${vacation.tenancy.connection-wait-ms:1000}") long waitMillis) {
+        return new TenantConnectionPools(dataSource, tenants.isEnabled() ? maxPerTenant : 0, waitMillis);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer tenancyHibernateProperties(TenantConnectionPools connectionPools) {
+        return properties -> {
+            properties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, new CurrentTenantResolver());
+            properties.put(AvailableSettings.MULTI_TENANT_CONNECTION_PROVIDER, connectionPools);
+        };
+    }
+}
@@ -0,0 +1,166 @@
+package com.eddie.vacation.config;
+
+import com.eddie.vacation.service.QueryTracer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Wraps the pool so every statement reports its SQL, execution time and row count to the
+ * QueryTracer. Only execution is timed; rows of a query are counted as the caller reads
+ * them and reported when the result set (or, failing that, the statement) is closed.
+ * Everything else is passed straight through, including unwrap().
+ */
+public class TracingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> EXECUTE = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final Supplier<QueryTracer> tracer; // resolved lazily, the pool is created before the tracer
+
+    public TracingDataSource(DataSource target, Supplier<QueryTracer> tracer) {
+        super(target);
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(super.getConnection(username, password));
+    }
+
+    private Connection connection(Connection target) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+            if (result instanceof CallableStatement statement) {
+                return statement(CallableStatement.class, statement, sql);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return statement(PreparedStatement.class, statement, sql);
+            }
+            if (result instanceof Statement statement) {
+                return statement(Statement.class, statement, null);
+            }
+            return result;
+        });
+    }
+
+    private <S extends Statement> S statement(Class<S> type, S target, String preparedSql) {
+        StatementTrace trace = new StatementTrace(preparedSql);
+        return proxy(type, (proxy, method, args) -> {
+            String name = method.getName();
+            if (EXECUTE.contains(name)) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : trace.sql;
+                trace.flush(); // a statement object can be executed many times
+                long start = System.nanoTime();
+                Object result = invoke(target, method, args);
+                long nanos = System.nanoTime() - start;
+                if (result instanceof ResultSet resultSet) {
+                    trace.pending(sql, nanos);
+                    return resultSet(resultSet, trace);
+                }
+                if (name.equals("execute") && Boolean.TRUE.equals(result)) {
+                    trace.pending(sql, nanos); // rows follow through getResultSet()
+                } else {
+                    tracer.get().record(sql, nanos, rows(result, target));
+                }
+                return result;
+            }
+            if (name.equals("addBatch") && args != null && args.length == 1) {
+                trace.sql = trace.sql == null ? (String) args[0] : trace.sql + "; " + args[0];
+            }
+            if (name.equals("close")) {
+                trace.flush();
+            }
+            Object result = invoke(target, method, args);
+            if (name.equals("getResultSet") && result instanceof ResultSet resultSet) {
+                return resultSet(resultSet, trace);
+            }
+            return result;
+        });
+    }
+
+    private ResultSet resultSet(ResultSet target, StatementTrace trace) {
+        return proxy(ResultSet.class, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                trace.rows++;
+            } else if (method.getName().equals("close")) {
+                trace.flush();
+            }
+            return result;
+        });
+    }
+
+    private static long rows(Object result, Statement statement) throws SQLException {
+        if (result instanceof Integer count) {
+            return count;
+        }
+        if (result instanceof Long count) {
+            return count;
+        }
+        if (result instanceof int[] counts) {
+            return Arrays.stream(counts).filter(c -> c > 0).asLongStream().sum();
+        }
+        if (result instanceof long[] counts) {
+            return Arrays.stream(counts).filter(c -> c > 0).sum();
+        }
+        return statement.getUpdateCount();
+    }
+
+    // a query whose rows are still being read, reported once
+    private final class StatementTrace {
+        private String sql;
+        private String pendingSql;
+        private long pendingNanos = -1;
+        private long rows;
+
+        private StatementTrace(String sql) {
+            this.sql = sql;
+        }
+
+        void pending(String sql, long nanos) {
+            pendingSql = sql;
+            pendingNanos = nanos;
+            rows = 0;
+        }
+
+        void flush() {
+            if (pendingNanos >= 0) {
+                tracer.get().record(pendingSql, pendingNanos, rows);
+                pendingNanos = -1;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(TracingDataSource.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause(); // the driver's SQLException, not the reflection wrapper
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.eddie.vacation.controller;
+
+import com.eddie.vacation.service.CalendarFeeds;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+// the .ics endpoints of both controllers
+final class CalendarFeedResponses {
+
+    private static final MediaType CALENDAR = MediaType.parseMediaType(CalendarFeeds.CONTENT_TYPE);
+
+    private CalendarFeedResponses() {
+    }
+
+    // pre-rendered bytes, a poll with the current ETag gets a bodyless 304
+    static ResponseEntity<?> of(CalendarFeeds.Feed feed, WebRequest webRequest) {
+        if (webRequest.checkNotModified(feed.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(feed.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(feed.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(CALENDAR)
+                .body(feed.body());
+    }
+}
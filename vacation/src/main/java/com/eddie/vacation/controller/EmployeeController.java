@@ -1,14 +1,27 @@
 package com.eddie.vacation.controller;
 
+import com.eddie.vacation.dto.RequestFieldSelection;
+import com.eddie.vacation.dto.SubmissionStatusDto;
 import com.eddie.vacation.dto.VacationRequestDto;
 import com.eddie.vacation.exception.EmployeeNotFoundException;
 import com.eddie.vacation.exception.InsufficientVacationDaysException;
+import com.eddie.vacation.exception.TooManyRequestsException;
 import com.eddie.vacation.model.VacationRequest;
+import com.eddie.vacation.service.CalendarFeeds;
+import com.eddie.vacation.service.IdempotencyStore;
+import com.eddie.vacation.service.ResourceVersions;
+import com.eddie.vacation.service.VacationRequestIntake;
 import com.eddie.vacation.service.VacationService;
+import com.eddie.vacation.service.WriteAdmissionControl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.net.URI;
 import java.util.List;
 
 @RestController
@@ -16,31 +29,76 @@ import java.util.List;
 public class EmployeeController {
 
     private final VacationService vacationService;
+    private final ResourceVersions resourceVersions;
+    private final WriteAdmissionControl admissionControl;
+    private final IdempotencyStore idempotencyStore;
+    private final VacationRequestIntake requestIntake;
+    private final CalendarFeeds calendarFeeds;
 
     @Autowired
-    public EmployeeController(VacationService vacationService) {
+    public EmployeeController(VacationService vacationService, ResourceVersions resourceVersions,
+            WriteAdmissionControl admissionControl, IdempotencyStore idempotencyStore,
+            VacationRequestIntake requestIntake, CalendarFeeds calendarFeeds) {
         this.vacationService = vacationService;
+        this.resourceVersions = resourceVersions;
+        this.admissionControl = admissionControl;
+        this.idempotencyStore = idempotencyStore;
+        this.requestIntake = requestIntake;
+        this.calendarFeeds = calendarFeeds;
     }
 
     @GetMapping("/{employeeId}/requests")
     public ResponseEntity<?> getEmployeeRequests(
             @PathVariable Long employeeId,
-            @RequestParam(required = false) String status) {
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "false") boolean includeArchived, // history view, also reads the archive
+            @RequestParam(required = false) String fields, // e.g. id,vacationStartDate,vacationEndDate,status
+            @RequestParam(required = false) String expand, // author,resolvedBy as full employees
+            WebRequest webRequest) {
+        RequestFieldSelection selection;
         try {
+            selection = RequestFieldSelection.parse(fields, expand);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+        // stamp is read before querying, so a concurrent write can only make the tag older than the data
+        ResourceVersions.Stamp stamp = resourceVersions.employee(employeeId);
+        String etag = resourceVersions.etag("employee-" + employeeId + "-requests-" + status
+                + (includeArchived ? "-history" : "") + (selection == null ? "" : "-" + selection.key()),
+                stamp, webRequest);
+        if (ResourceVersions.isNotModified(webRequest, etag, stamp)) {
+            return notModified(etag, stamp);
+        }
+        try {
+            if (includeArchived) {
+                List<VacationRequest> history = vacationService.getRequestHistoryByEmployee(employeeId, status);
+                // archived rows are few and already loaded, narrowing them happens in memory
+                return cacheable(etag, stamp).body(selection == null ? history
+                        : history.stream().map(selection::project).toList());
+            }
+            if (selection != null) {
+                return cacheable(etag, stamp).body(
+                        vacationService.getRequestViewsByEmployee(employeeId, status, selection));
+            }
             List<VacationRequest> requests = status == null
                     ? vacationService.getRequestsByEmployee(employeeId)
                     : vacationService.getRequestsByEmployeeAndStatus(employeeId, status);
-            return ResponseEntity.ok(requests);
+            return cacheable(etag, stamp).body(requests);
         } catch (EmployeeNotFoundException e) {
             return ResponseEntity.status(404).body(new ErrorResponse(e.getMessage()));
         }
     }
 
     @GetMapping("/{employeeId}/remaining-days")
-    public ResponseEntity<?> getRemainingVacationDays(@PathVariable Long employeeId) {
+    public ResponseEntity<?> getRemainingVacationDays(@PathVariable Long employeeId, WebRequest webRequest) {
+        ResourceVersions.Stamp stamp = resourceVersions.employee(employeeId);
+        String etag = resourceVersions.etag("employee-" + employeeId + "-remaining-days", stamp, webRequest);
+        if (ResourceVersions.isNotModified(webRequest, etag, stamp)) {
+            return notModified(etag, stamp);
+        }
         try {
             int remainingDays = vacationService.getRemainingVacationDays(employeeId);
-            return ResponseEntity.ok(remainingDays);
+            return cacheable(etag, stamp).body(remainingDays);
         } catch (EmployeeNotFoundException e) {
             return ResponseEntity.status(404).body(new ErrorResponse(e.getMessage()));
         }
@@ -49,20 +107,75 @@ public class EmployeeController {
     @PostMapping("/{employeeId}/requests")
     public ResponseEntity<?> createRequest(
             @PathVariable Long employeeId,
-            @RequestBody VacationRequestDto requestDto) {
+            @RequestBody VacationRequestDto requestDto,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        // a retried submission with the same key gets the first response back
+        return idempotencyStore.execute(idempotencyKey, "POST /api/employee/" + employeeId + "/requests", requestDto,
+                () -> {
+                    try {
+                        requestDto.setAuthorId(employeeId);
+                        if (requestIntake.isEnabled()) {
+                            // async intake: 202 now, the outcome is published at the status URL
+                            SubmissionStatusDto submission = admissionControl.execute("employee:" + employeeId,
+                                    () -> requestIntake.submit(requestDto));
+                            return ResponseEntity.accepted()
+                                    .location(URI.create("/api/employee/" + employeeId + "/requests/submissions/"
+                                            + submission.getTicketId()))
+                                    .body(submission);
+                        }
+                        VacationRequest createdRequest = admissionControl.execute("employee:" + employeeId,
+                                () -> vacationService.createRequest(requestDto));
+                        return ResponseEntity.ok(createdRequest);
+                    } catch (TooManyRequestsException e) {
+                        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                                .body(new ErrorResponse(e.getMessage()));
+                    } catch (EmployeeNotFoundException e) {
+                        return ResponseEntity.status(404).body(new ErrorResponse(e.getMessage()));
+                    } catch (InsufficientVacationDaysException e) {
+                        return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+                    } catch (IllegalArgumentException e) {
+                        return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+                    }
+                });
+    }
+
+    @GetMapping("/{employeeId}/calendar.ics") // approved leave for calendar apps, which poll it every few minutes
+    public ResponseEntity<?> getCalendarFeed(@PathVariable Long employeeId, WebRequest webRequest) {
         try {
-            requestDto.setAuthorId(employeeId);
-            VacationRequest createdRequest = vacationService.createRequest(requestDto);
-            return ResponseEntity.ok(createdRequest);
+            return CalendarFeedResponses.of(calendarFeeds.employeeFeed(employeeId), webRequest);
         } catch (EmployeeNotFoundException e) {
             return ResponseEntity.status(404).body(new ErrorResponse(e.getMessage()));
-        } catch (InsufficientVacationDaysException e) {
-            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         }
     }
 
+    @GetMapping("/{employeeId}/requests/submissions/{ticketId}")
+    public ResponseEntity<?> getSubmission(@PathVariable Long employeeId, @PathVariable String ticketId) {
+        return requestIntake.findSubmission(ticketId)
+                .filter(submission -> employeeId.equals(submission.getEmployeeId()))
+                .<ResponseEntity<?>>map(submission -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.noStore()) // changes once the worker gets to it
+                        .body(submission))
+                .orElseGet(() -> ResponseEntity.status(404).body(new ErrorResponse("Submission not found")));
+    }
+
+    // clients must revalidate, but an unchanged resource costs a 304 with no body
+    private static ResponseEntity.BodyBuilder cacheable(String etag, ResourceVersions.Stamp stamp) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(stamp.lastModified())
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT);
+    }
+
+    private static ResponseEntity<?> notModified(String etag, ResourceVersions.Stamp stamp) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .lastModified(stamp.lastModified())
+                .cacheControl(CacheControl.noCache())
+                .build();
+    }
+
     // Inner class for error responses
     public static class ErrorResponse {
         private final String message;
@@ -1,13 +1,23 @@
 package com.eddie.vacation.controller;
 
+import com.eddie.vacation.dto.RequestFieldSelection;
 import com.eddie.vacation.dto.RequestStatusUpdateDto;
 import com.eddie.vacation.exception.*;
 import com.eddie.vacation.model.VacationRequest;
+import com.eddie.vacation.service.CalendarFeeds;
+import com.eddie.vacation.service.IdempotencyStore;
+import com.eddie.vacation.service.ResourceVersions;
+import com.eddie.vacation.service.UsageAnalytics;
 import com.eddie.vacation.service.VacationService;
+import com.eddie.vacation.service.WriteAdmissionControl;
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
@@ -18,30 +28,66 @@ import java.util.List;
 public class ManagerController {
 
     private final VacationService vacationService;
+    private final ResourceVersions resourceVersions;
+    private final WriteAdmissionControl admissionControl;
+    private final IdempotencyStore idempotencyStore;
+    private final UsageAnalytics usageAnalytics;
+    private final CalendarFeeds calendarFeeds;
 
     @Autowired // constructor injection
-    public ManagerController(VacationService vacationService) {
+    public ManagerController(VacationService vacationService, ResourceVersions resourceVersions,
+            WriteAdmissionControl admissionControl, IdempotencyStore idempotencyStore,
+            UsageAnalytics usageAnalytics, CalendarFeeds calendarFeeds) {
         this.vacationService = vacationService;
+        this.resourceVersions = resourceVersions;
+        this.admissionControl = admissionControl;
+        this.idempotencyStore = idempotencyStore;
+        this.usageAnalytics = usageAnalytics;
+        this.calendarFeeds = calendarFeeds;
     }
 
     @GetMapping("/requests") // can fillter with status
     public ResponseEntity<?> getAllRequests(
-            @RequestParam(required = false) String status) {
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String fields, // e.g. id,vacationStartDate,vacationEndDate,status
+            @RequestParam(required = false) String expand, // author,resolvedBy as full employees
+            WebRequest webRequest) {
+        RequestFieldSelection selection;
         try {
+            selection = RequestFieldSelection.parse(fields, expand);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+        ResourceVersions.Stamp stamp = resourceVersions.requestTable();
+        String etag = resourceVersions.etag("requests-" + (status == null ? null : status.toLowerCase())
+                + (selection == null ? "" : "-" + selection.key()), stamp, webRequest);
+        if (ResourceVersions.isNotModified(webRequest, etag, stamp)) {
+            return notModified(etag, stamp);
+        }
+        try {
+            String normalizedStatus = status == null ? null : status.toLowerCase();
+            if (selection != null) {
+                return cacheable(etag, stamp).body(vacationService.getRequestViews(normalizedStatus, selection));
+            }
             List<VacationRequest> requests = (status == null)
                     ? vacationService.getAllRequests()
-                    : vacationService.getRequestsByStatus(status.toLowerCase());
-            return ResponseEntity.ok(requests);
+                    : vacationService.getRequestsByStatus(normalizedStatus);
+            return cacheable(etag, stamp).body(requests);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         }
     }
 
-    @GetMapping("/{managerId}/requests") // get all pending requests, manager only
-    public ResponseEntity<?> getPendingRequests(@PathVariable Long managerId) {
+    @GetMapping("/{managerId}/requests") // pending requests of direct reports and of employees without a manager
+    public ResponseEntity<?> getPendingRequests(@PathVariable Long managerId, WebRequest webRequest) {
+        ResourceVersions.Stamp stamp = resourceVersions.requestTable(); // reporting lines also bump it
+        String etag = resourceVersions.etag("manager-" + managerId + "-pending", stamp, webRequest);
+        if (ResourceVersions.isNotModified(webRequest, etag, stamp)) {
+            return notModified(etag, stamp);
+        }
         try {
             List<VacationRequest> pendingRequests = vacationService.getRequestsForManager(managerId);
-            return ResponseEntity.ok(pendingRequests);
+            return cacheable(etag, stamp).body(pendingRequests);
         } catch (EmployeeNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse(e.getMessage()));
         } catch (UnauthorizedException e) {
@@ -51,9 +97,12 @@ public class ManagerController {
 
     @GetMapping("/employee/{employeeId}/requests")
     public ResponseEntity<?> getEmployeeRequests(
-            @PathVariable Long employeeId) {
+            @PathVariable Long employeeId,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
         try {
-            return ResponseEntity.ok(vacationService.getRequestsByEmployee(employeeId));
+            return ResponseEntity.ok(includeArchived
+                    ? vacationService.getRequestHistoryByEmployee(employeeId, null)
+                    : vacationService.getRequestsByEmployee(employeeId));
         } catch (EmployeeNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse(e.getMessage()));
         }
@@ -74,27 +123,90 @@ public class ManagerController {
         }
     }
 
-    @PutMapping("/request/{requestId}/status")
-    public ResponseEntity<?> updateRequestStatus(
-            @PathVariable Long requestId,
-            @RequestBody RequestStatusUpdateDto statusUpdate) {
+    @GetMapping("/absences") // who is off on each day of [start-end], optionally only within a team
+    public ResponseEntity<?> getAbsences(
+            @RequestParam String startDate,
+            @RequestParam String endDate,
+            @RequestParam(required = false) List<Long> employeeIds) {
         try {
-            VacationRequest updatedRequest = vacationService.updateRequestStatus(requestId, statusUpdate);
-            return ResponseEntity.ok(updatedRequest);
-        } catch (VacationRequestNotFoundException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse(e.getMessage()));
-        } catch (EmployeeNotFoundException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse(e.getMessage()));
-        } catch (UnauthorizedException e) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new ErrorResponse(e.getMessage()));
-        } catch (IllegalArgumentException | InsufficientVacationDaysException e) {
+            LocalDate start = LocalDate.parse(startDate);
+            LocalDate end = LocalDate.parse(endDate);
+            return ResponseEntity.ok(vacationService.getAbsences(start, end, employeeIds));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Invalid date format"));
+        } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ErrorResponse("An unexpected error occurred"));
         }
     }
 
+    @GetMapping("/analytics/usage") // per-employee and per-manager statistics for requests starting in the year
+    public ResponseEntity<?> getUsage(@RequestParam(required = false) Integer year) {
+        try {
+            return ResponseEntity.ok(usageAnalytics.getYearReport(year == null ? LocalDate.now().getYear() : year));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/departments/{departmentId}/calendar.ics") // the team's approved leave as a calendar feed
+    public ResponseEntity<?> getDepartmentCalendarFeed(@PathVariable Long departmentId, WebRequest webRequest) {
+        try {
+            return CalendarFeedResponses.of(calendarFeeds.departmentFeed(departmentId), webRequest);
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @PutMapping("/request/{requestId}/status")
+    public ResponseEntity<?> updateRequestStatus(
+            @PathVariable Long requestId,
+            @RequestBody RequestStatusUpdateDto statusUpdate,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        // a retried decision with the same key gets the first response back
+        return idempotencyStore.execute(idempotencyKey, "PUT /api/manager/request/" + requestId + "/status",
+                statusUpdate, () -> {
+                    try {
+                        VacationRequest updatedRequest = admissionControl.execute("manager:" + statusUpdate.getManagerId(),
+                                () -> vacationService.updateRequestStatus(requestId, statusUpdate));
+                        return ResponseEntity.ok(updatedRequest);
+                    } catch (TooManyRequestsException e) {
+                        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                                .body(new ErrorResponse(e.getMessage()));
+                    } catch (VacationRequestNotFoundException e) {
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse(e.getMessage()));
+                    } catch (EmployeeNotFoundException e) {
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse(e.getMessage()));
+                    } catch (UnauthorizedException e) {
+                        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new ErrorResponse(e.getMessage()));
+                    } catch (InsufficientCoverageException e) {
+                        return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponse(e.getMessage()));
+                    } catch (IllegalArgumentException | InsufficientVacationDaysException e) {
+                        return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+                    } catch (Exception e) {
+                        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                                .body(new ErrorResponse("An unexpected error occurred"));
+                    }
+                });
+    }
+
+    // clients must revalidate, but an unchanged resource costs a 304 with no body
+    private static ResponseEntity.BodyBuilder cacheable(String etag, ResourceVersions.Stamp stamp) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(stamp.lastModified())
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT);
+    }
+
+    private static ResponseEntity<?> notModified(String etag, ResourceVersions.Stamp stamp) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .lastModified(stamp.lastModified())
+                .cacheControl(CacheControl.noCache())
+                .build();
+    }
+
     // wrapper for error messages always returns JSON object
     public static class ErrorResponse {
         private final String message;
@@ -0,0 +1,117 @@
+package com.eddie.vacation.dto;
+
+import com.eddie.vacation.model.Employee;
+import com.eddie.vacation.model.VacationRequest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Parsed {@code fields=} / {@code expand=} parameters of the request list endpoints.
+ * Only the listed fields are selected; author and resolvedBy come back as {@code {"id": ..}}
+ * read from the foreign key unless expanded, in which case the employee is joined and
+ * returned in full. Without either parameter the endpoints return whole entities as before.
+ */
+public final class RequestFieldSelection {
+
+    public static final List<String> FIELDS = List.of(
+            "id", "status", "vacationStartDate", "vacationEndDate", "requestCreatedAt", "resolvedAt", "author",
+            "resolvedBy");
+    public static final List<String> ASSOCIATIONS = List.of("author", "resolvedBy");
+
+    private final Set<String> fields; // in FIELDS order
+    private final Set<String> expanded;
+
+    private RequestFieldSelection(Set<String> fields, Set<String> expanded) {
+        this.fields = Collections.unmodifiableSet(fields);
+        this.expanded = Collections.unmodifiableSet(expanded);
+    }
+
+    /**
+     * @return null when neither parameter is given (full entities)
+     * @throws IllegalArgumentException on unknown field or association names
+     */
+    public static RequestFieldSelection parse(String fields, String expand) {
+        if (isBlank(fields) && isBlank(expand)) {
+            return null;
+        }
+        Set<String> expanded = names(expand, ASSOCIATIONS, "expand");
+        Set<String> requested = isBlank(fields) ? new LinkedHashSet<>(FIELDS) : names(fields, FIELDS, "fields");
+        requested.addAll(expanded); // expanding an association implies selecting it
+        Set<String> ordered = new LinkedHashSet<>();
+        FIELDS.stream().filter(requested::contains).forEach(ordered::add);
+        return new RequestFieldSelection(ordered, expanded);
+    }
+
+    private static Set<String> names(String value, List<String> allowed, String parameter) {
+        Set<String> names = new LinkedHashSet<>();
+        if (isBlank(value)) {
+            return names;
+        }
+        for (String name : Arrays.stream(value.split(",")).map(String::trim).filter(n -> !n.isEmpty()).toList()) {
+            if (!allowed.contains(name)) {
+                throw new IllegalArgumentException("Unknown " + parameter + " value '" + name + "', allowed: "
+                        + String.join(", ", allowed));
+            }
+            names.add(name);
+        }
+        return names;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    public Set<String> getFields() {
+        return fields;
+    }
+
+    public boolean isExpanded(String association) {
+        return expanded.contains(association);
+    }
+
+    // part of cache and ETag keys, equal selections give equal keys; no commas, they
+    // separate the tags of an If-None-Match header
+    public String key() {
+        return String.join(".", fields) + "|" + String.join(".", expanded);
+    }
+
+    /**
+     * Same shape the repository projection produces, for requests that are already loaded
+     * (e.g. history merged with the archive).
+     */
+    public Map<String, Object> project(VacationRequest request) {
+        Map<String, Function<VacationRequest, Object>> getters = Map.of(
+                "id", VacationRequest::getId,
+                "status", VacationRequest::getStatus,
+                "vacationStartDate", VacationRequest::getVacationStartDate,
+                "vacationEndDate", VacationRequest::getVacationEndDate,
+                "requestCreatedAt", VacationRequest::getRequestCreatedAt,
+                "resolvedAt", VacationRequest::getResolvedAt,
+                "author", r -> association("author", r.getAuthor()),
+                "resolvedBy", r -> association("resolvedBy", r.getResolvedBy()));
+        Map<String, Object> view = new LinkedHashMap<>();
+        for (String field : fields) {
+            view.put(field, getters.get(field).apply(request));
+        }
+        return view;
+    }
+
+    private Object association(String name, Employee employee) {
+        if (employee == null || isExpanded(name)) {
+            return employee;
+        }
+        return reference(employee.getId());
+    }
+
+    // an unexpanded association, just the foreign key
+    public static Map<String, Object> reference(Object id) {
+        return id == null ? null : Map.of("id", id);
+    }
+}
@@ -0,0 +1,17 @@
+package com.eddie.vacation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// state of a request submitted through the async intake, served at its status URL
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmissionStatusDto {
+    private String ticketId;
+    private Long employeeId;
+    private String status; // queued, created, rejected
+    private Long requestId; // set once created
+    private String message; // reason when rejected
+}
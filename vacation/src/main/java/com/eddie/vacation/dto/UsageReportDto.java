@@ -0,0 +1,44 @@
+package com.eddie.vacation.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// year-end usage statistics over live and archived requests starting in the period
+@Data
+@NoArgsConstructor
+public class UsageReportDto {
+    private LocalDate from;
+    private LocalDate to;
+    private List<EmployeeUsage> employees = new ArrayList<>();
+    private List<ManagerUsage> managers = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    public static class EmployeeUsage {
+        private Long employeeId;
+        private String name; // null for offboarded employees
+        private long requests;
+        private long approved;
+        private long rejected;
+        private long pending;
+        private long daysTaken; // working days of approved requests
+        private Double approvalRate; // approved / decided, null without decisions
+        private Double averageHoursToDecision; // null without timed decisions
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class ManagerUsage {
+        private Long managerId;
+        private String name;
+        private long decisions;
+        private long approved;
+        private long rejected;
+        private Double approvalRate;
+        private Double averageHoursToDecision;
+    }
+}
@@ -0,0 +1,14 @@
+package com.eddie.vacation.event;
+
+import java.util.List;
+
+/**
+ * Published by EmployeeService when an employee's details change or the employee is removed.
+ * The department ids are equal unless the employee moved to another team; either may be null.
+ */
+public record EmployeeChangedEvent(
+        Long employeeId,
+        Long previousDepartmentId,
+        Long departmentId,
+        List<Long> resolvedForIds) { // authors of requests this employee resolved, their lists embed the employee
+}
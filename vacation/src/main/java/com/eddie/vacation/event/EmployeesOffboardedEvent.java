@@ -0,0 +1,13 @@
+package com.eddie.vacation.event;
+
+import java.util.List;
+
+/**
+ * Published by EmployeeService after a batch of employees and their requests was removed
+ * with bulk statements, so no per-entity events exist for it.
+ */
+public record EmployeesOffboardedEvent(
+        List<Long> employeeIds,
+        List<Long> departmentIds, // teams whose absences changed
+        List<Long> resolvedForIds) { // remaining employees whose requests lost their resolver
+}
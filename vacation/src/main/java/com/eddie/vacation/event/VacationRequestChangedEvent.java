@@ -0,0 +1,18 @@
+package com.eddie.vacation.event;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Published by VacationService whenever a request is created or resolved.
+ * Listeners that keep derived state (caches, indexes, version stamps) react after commit.
+ */
+public record VacationRequestChangedEvent(
+        Long requestId,
+        Long authorId,
+        String previousStatus, // null for newly created requests
+        String status,
+        LocalDate vacationStartDate,
+        LocalDate vacationEndDate,
+        LocalDateTime changedAt) { // resolvedAt, or requestCreatedAt while pending
+}
@@ -0,0 +1,15 @@
+package com.eddie.vacation.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by PendingRequestEscalator when a request stayed pending past its SLA.
+ * Notification hooks pick it up; the request itself is unchanged.
+ */
+public record VacationRequestEscalatedEvent(
+        Long requestId,
+        Long authorId,
+        Long managerId, // null without a reporting line
+        Long escalateToId, // the manager's own manager, null at the top
+        LocalDateTime pendingSince) {
+}
@@ -0,0 +1,12 @@
+package com.eddie.vacation.event;
+
+import java.util.List;
+
+/**
+ * Published by VacationRequestArchiver for every batch moved to the archive table.
+ * The requests disappear from the live views, so version stamps and caches must react.
+ */
+public record VacationRequestsArchivedEvent(
+        List<Long> requestIds,
+        List<Long> authorIds) {
+}
@@ -1,5 +1,6 @@
 package com.eddie.vacation.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -34,6 +35,23 @@ public class GlobalExceptionHandler {
       return errorResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
    }
 
+   @ExceptionHandler(InsufficientCoverageException.class)
+   public ResponseEntity<Map<String, String>> handleInsufficientCoverage(InsufficientCoverageException ex) {
+      return errorResponse(HttpStatus.CONFLICT, ex.getMessage());
+   }
+
+   @ExceptionHandler(IdempotencyConflictException.class)
+   public ResponseEntity<Map<String, String>> handleIdempotencyConflict(IdempotencyConflictException ex) {
+      return errorResponse(HttpStatus.CONFLICT, ex.getMessage());
+   }
+
+   @ExceptionHandler(TooManyRequestsException.class)
+   public ResponseEntity<Map<String, String>> handleTooManyRequests(TooManyRequestsException ex) {
+      return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(Map.of("message", ex.getMessage()));
+   }
+
    @ExceptionHandler(IllegalArgumentException.class)
    public ResponseEntity<Map<String, String>> handleIllegalArgs(IllegalArgumentException ex) {
       return errorResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
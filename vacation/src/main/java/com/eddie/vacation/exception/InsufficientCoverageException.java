@@ -0,0 +1,7 @@
+package com.eddie.vacation.exception;
+
+public class InsufficientCoverageException extends RuntimeException {
+    public InsufficientCoverageException(String message) {
+        super(message);
+    }
+}
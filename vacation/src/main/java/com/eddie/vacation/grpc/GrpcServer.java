@@ -0,0 +1,90 @@
+package com.eddie.vacation.grpc;
+
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Netty gRPC server for every BindableService bean (behind every ServerInterceptor bean), on its
+ * own port next to the servlet container.
+ * Started with the context and drained on shutdown; a negative port disables it.
+ */
+@Component
+public class GrpcServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(GrpcServer.class);
+
+    private final List<BindableService> services;
+    private final List<ServerInterceptor> interceptors;
+    private final int port;
+    private final long shutdownGraceMillis;
+    private volatile Server server;
+
+    @Autowired
+    public GrpcServer(List<BindableService> services,
+            List<ServerInterceptor> interceptors,
+            @Value("${vacation.grpc.port:9090}") int port,
+            @Value("${vacation.grpc.shutdown-grace-ms:5000}") long shutdownGraceMillis) {
+        this.services = services;
+        this.interceptors = interceptors;
+        this.port = port;
+        this.shutdownGraceMillis = shutdownGraceMillis;
+    }
+
+    @Override
+    public void start() {
+        if (port < 0) {
+            return;
+        }
+        NettyServerBuilder builder = NettyServerBuilder.forPort(port);
+        services.forEach(service -> builder.addService(ServerInterceptors.intercept(service, interceptors)));
+        try {
+            server = builder.build().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the gRPC server on port " + port, e);
+        }
+        log.info("gRPC server listening on port {} with {} service(s)", server.getPort(), services.size());
+    }
+
+    @Override
+    public void stop() {
+        Server running = server;
+        if (running == null) {
+            return;
+        }
+        running.shutdown(); // no new calls, running ones may finish
+        try {
+            if (!running.awaitTermination(shutdownGraceMillis, TimeUnit.MILLISECONDS)) {
+                running.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running.shutdownNow();
+        }
+        server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    // actual port, useful when configured as 0
+    public int getPort() {
+        Server running = server;
+        return running == null ? -1 : running.getPort();
+    }
+}
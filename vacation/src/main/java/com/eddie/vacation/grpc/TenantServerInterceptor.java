@@ -0,0 +1,82 @@
+package com.eddie.vacation.grpc;
+
+import com.eddie.vacation.tenant.TenantContext;
+import com.eddie.vacation.tenant.TenantRegistry;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * gRPC side of TenantFilter: the tenant comes from the x-tenant-id metadata entry and is bound
+ * to the thread for every callback of the call, since gRPC may run them on different threads.
+ */
+@Component
+public class TenantServerInterceptor implements ServerInterceptor {
+
+    static final Metadata.Key<String> TENANT = Metadata.Key.of("x-tenant-id", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final TenantRegistry tenants;
+
+    @Autowired
+    public TenantServerInterceptor(TenantRegistry tenants) {
+        this.tenants = tenants;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+            ServerCallHandler<ReqT, RespT> next) {
+        String tenant;
+        try {
+            tenant = tenants.resolve(headers.get(TENANT));
+        } catch (IllegalArgumentException e) {
+            call.close(Status.INVALID_ARGUMENT.withDescription(e.getMessage()), new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+        ServerCall.Listener<ReqT> listener;
+        try (TenantContext.Scope scope = TenantContext.enter(tenant)) {
+            listener = next.startCall(call, headers);
+        }
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onMessage(ReqT message) {
+                try (TenantContext.Scope scope = TenantContext.enter(tenant)) {
+                    super.onMessage(message);
+                }
+            }
+
+            @Override
+            public void onHalfClose() {
+                try (TenantContext.Scope scope = TenantContext.enter(tenant)) {
+                    super.onHalfClose(); // unary handlers run here
+                }
+            }
+
+            @Override
+            public void onReady() {
+                try (TenantContext.Scope scope = TenantContext.enter(tenant)) {
+                    super.onReady(); // streamed responses are produced here
+                }
+            }
+
+            @Override
+            public void onCancel() {
+                try (TenantContext.Scope scope = TenantContext.enter(tenant)) {
+                    super.onCancel();
+                }
+            }
+
+            @Override
+            public void onComplete() {
+                try (TenantContext.Scope scope = TenantContext.enter(tenant)) {
+                    super.onComplete();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,211 @@
+package com.eddie.vacation.grpc;
+
+import com.eddie.vacation.dto.RequestStatusUpdateDto;
+import com.eddie.vacation.dto.VacationRequestDto;
+import com.eddie.vacation.exception.EmployeeNotFoundException;
+import com.eddie.vacation.exception.InsufficientCoverageException;
+import com.eddie.vacation.exception.InsufficientVacationDaysException;
+import com.eddie.vacation.exception.TooManyRequestsException;
+import com.eddie.vacation.exception.UnauthorizedException;
+import com.eddie.vacation.exception.VacationRequestNotFoundException;
+import com.eddie.vacation.model.VacationRequest;
+import com.eddie.vacation.service.VacationService;
+import com.eddie.vacation.service.WriteAdmissionControl;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * gRPC counterpart of the REST controllers for internal callers (payroll, scheduling): the same
+ * VacationService operations over Protobuf on a long-lived HTTP/2 connection. Writes go through
+ * the same admission control as REST; service exceptions map to gRPC status codes the way the
+ * controllers map them to HTTP statuses. Request lists are server-streamed with flow control.
+ */
+@Component
+public class VacationGrpcService extends VacationApiGrpc.VacationApiImplBase {
+
+    private static final Logger log = LoggerFactory.getLogger(VacationGrpcService.class);
+
+    static final int MAX_BATCH_SIZE = 10_000;
+    static final Metadata.Key<String> RETRY_AFTER =
+            Metadata.Key.of("retry-after", Metadata.ASCII_STRING_MARSHALLER); // seconds, like the HTTP header
+
+    private final VacationService vacationService;
+    private final WriteAdmissionControl admissionControl;
+
+    @Autowired
+    public VacationGrpcService(VacationService vacationService, WriteAdmissionControl admissionControl) {
+        this.vacationService = vacationService;
+        this.admissionControl = admissionControl;
+    }
+
+    @Override
+    public void getRemainingDays(RemainingDaysRequest request, StreamObserver<RemainingDays> responseObserver) {
+        unary(responseObserver, () -> RemainingDays.newBuilder()
+                .setEmployeeId(request.getEmployeeId())
+                .setRemainingDays(vacationService.getRemainingVacationDays(request.getEmployeeId()))
+                .build());
+    }
+
+    @Override
+    public void batchGetRemainingDays(BatchRemainingDaysRequest request,
+            StreamObserver<BatchRemainingDaysReply> responseObserver) {
+        unary(responseObserver, () -> {
+            if (request.getEmployeeIdsCount() > MAX_BATCH_SIZE) {
+                throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " employee ids per call");
+            }
+            Map<Long, Integer> remaining = vacationService.getRemainingVacationDays(request.getEmployeeIdsList());
+            BatchRemainingDaysReply.Builder reply = BatchRemainingDaysReply.newBuilder();
+            for (Long employeeId : request.getEmployeeIdsList()) { // caller's order
+                Integer days = remaining.get(employeeId);
+                if (days == null) {
+                    reply.addNotFoundIds(employeeId);
+                } else {
+                    reply.addRemainingDays(RemainingDays.newBuilder().setEmployeeId(employeeId).setRemainingDays(days));
+                }
+            }
+            return reply.build();
+        });
+    }
+
+    @Override
+    public void findOverlappingRequests(DateRange request, StreamObserver<VacationRequestMessage> responseObserver) {
+        List<VacationRequest> requests;
+        try {
+            requests = vacationService.findOverlappingRequests(
+                    LocalDate.ofEpochDay(request.getStartEpochDay()), LocalDate.ofEpochDay(request.getEndEpochDay()));
+        } catch (RuntimeException e) {
+            responseObserver.onError(toStatus(e));
+            return;
+        }
+        stream(requests, responseObserver);
+    }
+
+    @Override
+    public void listRequests(ListRequestsRequest request, StreamObserver<VacationRequestMessage> responseObserver) {
+        String status = request.getStatus().isEmpty() ? null : request.getStatus().toLowerCase();
+        List<VacationRequest> requests;
+        try {
+            if (request.getEmployeeId() == 0) {
+                requests = status == null ? vacationService.getAllRequests() : vacationService.getRequestsByStatus(status);
+            } else {
+                requests = status == null
+                        ? vacationService.getRequestsByEmployee(request.getEmployeeId())
+                        : vacationService.getRequestsByEmployeeAndStatus(request.getEmployeeId(), status);
+            }
+        } catch (RuntimeException e) {
+            responseObserver.onError(toStatus(e));
+            return;
+        }
+        stream(requests, responseObserver);
+    }
+
+    @Override
+    public void createRequest(CreateRequestRequest request, StreamObserver<VacationRequestMessage> responseObserver) {
+        unary(responseObserver, () -> {
+            VacationRequestDto requestDto = new VacationRequestDto();
+            requestDto.setAuthorId(request.getEmployeeId());
+            requestDto.setVacationStartDate(LocalDate.ofEpochDay(request.getStartEpochDay()));
+            requestDto.setVacationEndDate(LocalDate.ofEpochDay(request.getEndEpochDay()));
+            return toMessage(admissionControl.execute("employee:" + request.getEmployeeId(),
+                    () -> vacationService.createRequest(requestDto)));
+        });
+    }
+
+    @Override
+    public void updateRequestStatus(UpdateStatusRequest request, StreamObserver<VacationRequestMessage> responseObserver) {
+        RequestStatusUpdateDto statusUpdate = new RequestStatusUpdateDto(request.getManagerId(), request.getStatus());
+        unary(responseObserver, () -> toMessage(admissionControl.execute("manager:" + request.getManagerId(),
+                () -> vacationService.updateRequestStatus(request.getRequestId(), statusUpdate))));
+    }
+
+    private static <T> void unary(StreamObserver<T> responseObserver, Supplier<T> call) {
+        T reply;
+        try {
+            reply = call.get();
+        } catch (RuntimeException e) {
+            responseObserver.onError(toStatus(e));
+            return;
+        }
+        responseObserver.onNext(reply);
+        responseObserver.onCompleted();
+    }
+
+    // sends only while the client keeps up, instead of buffering the whole list in the transport
+    private static void stream(List<VacationRequest> requests, StreamObserver<VacationRequestMessage> responseObserver) {
+        ServerCallStreamObserver<VacationRequestMessage> call =
+                (ServerCallStreamObserver<VacationRequestMessage>) responseObserver;
+        Iterator<VacationRequest> remaining = requests.iterator();
+        boolean[] completed = { false }; // onReady callbacks for one call never run concurrently
+        call.setOnReadyHandler(() -> {
+            while (call.isReady() && remaining.hasNext()) {
+                call.onNext(toMessage(remaining.next()));
+            }
+            if (!remaining.hasNext() && !completed[0]) {
+                completed[0] = true;
+                call.onCompleted();
+            }
+        });
+        call.setOnCancelHandler(() -> { }); // cancelled callers just stop receiving
+    }
+
+    static VacationRequestMessage toMessage(VacationRequest request) {
+        VacationRequestMessage.Builder message = VacationRequestMessage.newBuilder()
+                .setId(request.getId())
+                .setAuthorId(request.getAuthor().getId())
+                .setStatus(request.getStatus())
+                .setStartEpochDay(request.getVacationStartDate().toEpochDay())
+                .setEndEpochDay(request.getVacationEndDate().toEpochDay())
+                .setCreatedAtEpochMillis(epochMillis(request.getRequestCreatedAt()));
+        if (request.getResolvedBy() != null) {
+            message.setResolvedById(request.getResolvedBy().getId());
+        }
+        if (request.getResolvedAt() != null) {
+            message.setResolvedAtEpochMillis(epochMillis(request.getResolvedAt()));
+        }
+        return message.build();
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // same mapping as the REST controllers: 404, 403, 409, 429, 400, else 500
+    static StatusRuntimeException toStatus(RuntimeException e) {
+        if (e instanceof EmployeeNotFoundException || e instanceof VacationRequestNotFoundException) {
+            return Status.NOT_FOUND.withDescription(e.getMessage()).asRuntimeException();
+        }
+        if (e instanceof UnauthorizedException) {
+            return Status.PERMISSION_DENIED.withDescription(e.getMessage()).asRuntimeException();
+        }
+        if (e instanceof InsufficientCoverageException) {
+            return Status.FAILED_PRECONDITION.withDescription(e.getMessage()).asRuntimeException();
+        }
+        if (e instanceof TooManyRequestsException tooMany) {
+            Metadata trailers = new Metadata();
+            trailers.put(RETRY_AFTER, String.valueOf(tooMany.getRetryAfterSeconds()));
+            return Status.RESOURCE_EXHAUSTED.withDescription(e.getMessage()).asRuntimeException(trailers);
+        }
+        if (e instanceof IllegalArgumentException || e instanceof InsufficientVacationDaysException
+                || e instanceof DateTimeException) { // epoch days out of range
+            return Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException();
+        }
+        log.error("Unexpected error in gRPC call", e);
+        return Status.INTERNAL.withDescription("An unexpected error occurred").asRuntimeException();
+    }
+}
@@ -0,0 +1,68 @@
+package com.eddie.vacation.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * A resolved request moved out of vacation_requests by VacationRequestArchiver.
+ * Keeps the original id; author and resolver are plain ids so history survives the employee rows.
+ */
+@Data
+@Entity
+@Table(name = "vacation_requests_archive", indexes = {
+        @Index(name = "idx_vacation_requests_archive_author", columnList = "author_id"), // per-employee history
+        @Index(name = "idx_vacation_requests_archive_tenant_start", columnList = "tenant_id, vacation_start_date") // analytics
+})
+public class ArchivedVacationRequest {
+    @Id
+    private Long id; // same id the request had in vacation_requests
+
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, length = 64)
+    @ColumnDefault("'default'")
+    private String tenantId;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    @Column(nullable = false)
+    private String status; // approved or rejected, pending requests are never archived
+
+    @Column(name = "resolved_by_id")
+    private Long resolvedById;
+
+    @Column(name = "request_created_at", nullable = false)
+    private LocalDateTime requestCreatedAt;
+
+    @Column(name = "resolved_at")
+    private LocalDateTime resolvedAt;
+
+    @Column(name = "vacation_start_date", nullable = false)
+    private LocalDate vacationStartDate;
+
+    @Column(name = "vacation_end_date", nullable = false)
+    private LocalDate vacationEndDate;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    // detached VacationRequest with the same JSON shape as live requests, for history views
+    public VacationRequest toVacationRequest(Function<Long, Employee> employees) {
+        VacationRequest request = new VacationRequest();
+        request.setId(id);
+        request.setAuthor(employees.apply(authorId));
+        request.setStatus(status);
+        request.setResolvedBy(resolvedById == null ? null : employees.apply(resolvedById));
+        request.setRequestCreatedAt(requestCreatedAt);
+        request.setResolvedAt(resolvedAt);
+        request.setVacationStartDate(vacationStartDate);
+        request.setVacationEndDate(vacationEndDate);
+        return request;
+    }
+}
@@ -0,0 +1,36 @@
+package com.eddie.vacation.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
+
+@Data
+@Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "departments")
+@Table(name = "departments", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_departments_tenant_name", columnNames = { "tenant_id", "name" })
+})
+@JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
+public class Department {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, length = 64)
+    @ColumnDefault("'default'")
+    @JsonIgnore
+    private String tenantId;
+
+    @Column(nullable = false) // unique per tenant
+    private String name;
+
+    @Column(name = "min_staffing", nullable = false)
+    private int minStaffing = 0; // members that must stay at work on every working day, 0 = no rule
+}
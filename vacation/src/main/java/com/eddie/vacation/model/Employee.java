@@ -4,22 +4,41 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
 
 import java.util.List;
 
 @Data
 @Entity
-@Table(name = "employees")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "employees")
+@Table(name = "employees", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_employees_tenant_email", columnNames = { "tenant_id", "email" })
+}, indexes = {
+        @Index(name = "idx_employees_manager", columnList = "manager_id"), // reporting-line lookups
+        @Index(name = "idx_employees_department", columnList = "department_id")
+})
 @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
 public class Employee {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, length = 64)
+    @ColumnDefault("'default'") // rows from before multi-tenancy belong to the default tenant
+    @JsonIgnore
+    private String tenantId;
+
     @Column(nullable = false)
     private String name;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false) // unique per tenant
     private String email;
 
     @Column(name = "is_manager", nullable = false)
@@ -28,11 +47,29 @@ public class Employee {
     @Column(name = "remaining_vacation_days", nullable = false)
     private int remainingVacationDays = 30;
 
-    @OneToMany(mappedBy = "author", cascade = CascadeType.ALL, fetch = FetchType.LAZY) // EAGER always loads immediately
+    @Column(name = "region", length = 8) // public holiday calendar, null uses the default region
+    private String region;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "department_id") // team used for minimum staffing checks
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Department department;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "manager_id") // reporting line, the manager who resolves this employee's requests
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Employee reportsTo;
+
+    // no cascade: EmployeeService.offboardEmployees removes requests with bulk statements
+    @OneToMany(mappedBy = "author", fetch = FetchType.LAZY) // EAGER always loads immediately
     @JsonIgnore
     private List<VacationRequest> vacationRequests;
 
-    @OneToMany(mappedBy = "resolvedBy", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @OneToMany(mappedBy = "resolvedBy", fetch = FetchType.LAZY)
     @JsonIgnore
     private List<VacationRequest> resolvedRequests;
 }
\ No newline at end of file
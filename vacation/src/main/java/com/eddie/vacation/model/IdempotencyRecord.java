@@ -0,0 +1,30 @@
+package com.eddie.vacation.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "idempotency_records", indexes = {
+        @Index(name = "idx_idempotency_records_created_at", columnList = "created_at") // TTL purge
+})
+public class IdempotencyRecord {
+    @Id
+    @Column(name = "idempotency_key", length = 400)
+    private String key; // tenant + scope + client key, e.g. "default|POST /api/employee/1/requests|abc-123"
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint; // hash of the original request payload
+
+    @Column(name = "status_code", nullable = false)
+    private int statusCode;
+
+    @Lob
+    @Column(name = "response_body")
+    private String responseBody; // JSON as sent to the client
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -1,8 +1,13 @@
 package com.eddie.vacation.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -10,13 +15,23 @@ import java.time.temporal.ChronoUnit;
 
 @Data
 @Entity
-@Table(name = "vacation_requests")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "vacation-requests")
+@Table(name = "vacation_requests", indexes = {
+      @Index(name = "idx_vacation_requests_tenant_status_author", columnList = "tenant_id, status, author_id")
+})
 @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" }) // clean JSON (avoid recursion & Hibernate noise)
 public class VacationRequest {
    @Id
    @GeneratedValue(strategy = GenerationType.IDENTITY)
    private Long id;
 
+   @TenantId
+   @Column(name = "tenant_id", nullable = false, length = 64)
+   @ColumnDefault("'default'")
+   @JsonIgnore
+   private String tenantId;
+
    @ManyToOne(fetch = FetchType.LAZY)
    @JoinColumn(name = "author_id", nullable = false) // foreign key column
    @JsonIgnoreProperties({ "vacationRequests", "resolvedRequests", "hibernateLazyInitializer", "handler" })
@@ -33,14 +48,20 @@ public class VacationRequest {
    @Column(name = "request_created_at", nullable = false)
    private LocalDateTime requestCreatedAt = LocalDateTime.now();
 
+   @Column(name = "resolved_at") // null while pending and for requests resolved before it was recorded
+   private LocalDateTime resolvedAt;
+
    @Column(name = "vacation_start_date", nullable = false)
    private LocalDate vacationStartDate;
 
    @Column(name = "vacation_end_date", nullable = false)
    private LocalDate vacationEndDate;
 
+   // weekends and holidays included; balances are charged in working days (WorkingDayCalendar),
+   // so this is kept out of the JSON rather than reported as the deducted amount
    @Transient // not persisted in DB, calcs at runtime, no column is created in the table
-   public int getDurationInDays() {
+   @JsonIgnore
+   public int getCalendarDays() {
       return (int) ChronoUnit.DAYS.between(vacationStartDate, vacationEndDate) + 1;
    }
 }
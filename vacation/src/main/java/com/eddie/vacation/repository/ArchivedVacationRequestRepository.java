@@ -0,0 +1,63 @@
+package com.eddie.vacation.repository;
+
+import com.eddie.vacation.model.ArchivedVacationRequest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ArchivedVacationRequestRepository extends JpaRepository<ArchivedVacationRequest, Long> {
+
+   List<ArchivedVacationRequest> findByAuthorId(Long authorId);
+
+   List<ArchivedVacationRequest> findByAuthorIdAndStatus(Long authorId, String status);
+
+   // copies a batch in one INSERT ... SELECT, rows never pass through the persistence context;
+   // the tenant is copied too, the archiver runs as the root tenant
+   @Modifying
+   @Query("INSERT INTO ArchivedVacationRequest (id, tenantId, authorId, status, resolvedById, requestCreatedAt, " +
+                   "resolvedAt, vacationStartDate, vacationEndDate, archivedAt) " +
+                   "SELECT vr.id, vr.tenantId, vr.author.id, vr.status, vr.resolvedBy.id, vr.requestCreatedAt, " +
+                   "vr.resolvedAt, vr.vacationStartDate, vr.vacationEndDate, :archivedAt " +
+                   "FROM VacationRequest vr WHERE vr.id IN :ids")
+   int copyFromRequests(@Param("ids") List<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+   @Query("SELECT DISTINCT a.authorId FROM ArchivedVacationRequest a WHERE a.id IN :ids")
+   List<Long> findAuthorIds(@Param("ids") List<Long> ids);
+
+   // usage analytics over history, same shapes as the live table queries
+   @Query("SELECT ar.authorId AS employeeId, e.name AS name, ar.status AS status, COUNT(ar) AS requests " +
+                   "FROM ArchivedVacationRequest ar LEFT JOIN Employee e ON e.id = ar.authorId " +
+                   "WHERE ar.vacationStartDate BETWEEN :from AND :to " +
+                   "GROUP BY ar.authorId, e.name, ar.status")
+   List<VacationRequestRepository.StatusCount> countByAuthorAndStatus(
+                   @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+   @Query("SELECT ar.resolvedById AS employeeId, e.name AS name, ar.status AS status, COUNT(ar) AS requests " +
+                   "FROM ArchivedVacationRequest ar LEFT JOIN Employee e ON e.id = ar.resolvedById " +
+                   "WHERE ar.resolvedById IS NOT NULL " +
+                   "AND ar.vacationStartDate BETWEEN :from AND :to " +
+                   "GROUP BY ar.resolvedById, e.name, ar.status")
+   List<VacationRequestRepository.StatusCount> countByResolverAndStatus(
+                   @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+   @Query("SELECT ar.id AS id, ar.authorId AS authorId, e.region AS region, ar.resolvedById AS resolvedById, " +
+                   "ar.status AS status, ar.requestCreatedAt AS requestCreatedAt, ar.resolvedAt AS resolvedAt, " +
+                   "ar.vacationStartDate AS vacationStartDate, ar.vacationEndDate AS vacationEndDate " +
+                   "FROM ArchivedVacationRequest ar LEFT JOIN Employee e ON e.id = ar.authorId " +
+                   "WHERE ar.vacationStartDate BETWEEN :from AND :to " +
+                   "AND ar.id > :afterId " +
+                   "ORDER BY ar.id")
+   List<VacationRequestRepository.DecidedRequest> findDecidedAfter(
+                   @Param("from") LocalDate from,
+                   @Param("to") LocalDate to,
+                   @Param("afterId") Long afterId,
+                   Limit limit);
+}
@@ -0,0 +1,13 @@
+package com.eddie.vacation.repository;
+
+import com.eddie.vacation.model.Department;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface DepartmentRepository extends JpaRepository<Department, Long> {
+
+   Optional<Department> findByName(String name);
+}
@@ -1,9 +1,16 @@
 package com.eddie.vacation.repository;
 
 import com.eddie.vacation.model.Employee;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,7 +23,35 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
 
    List<Employee> findByIsManager(boolean isManager);
 
+   List<Employee> findByIsManager(boolean isManager, Limit limit); // startup warm-up samples
+
    Optional<Employee> findByEmail(String email);
 
+   @Lock(LockModeType.PESSIMISTIC_WRITE) // SELECT ... FOR UPDATE, serializes writers across app instances
+   @Query("SELECT e FROM Employee e WHERE e.id = :id")
+   Optional<Employee> findByIdForUpdate(@Param("id") Long id);
+
+   // batched intake locks all authors of a batch at once, in id order like every other locker
+   @Lock(LockModeType.PESSIMISTIC_WRITE)
+   @Query("SELECT e FROM Employee e WHERE e.id IN :ids ORDER BY e.id")
+   List<Employee> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
    boolean existsById(Long id);
+
+   long countByDepartmentId(Long departmentId);
+
+   List<Employee> findByReportsToId(Long managerId);
+
+   // offboarding runs as a few set-based statements, nothing is loaded into the persistence context
+
+   @Query("SELECT DISTINCT e.department.id FROM Employee e WHERE e.id IN :ids AND e.department IS NOT NULL")
+   List<Long> findDepartmentIds(@Param("ids") Collection<Long> ids);
+
+   @Modifying
+   @Query("UPDATE Employee e SET e.reportsTo = null WHERE e.reportsTo.id IN :ids")
+   int clearReportsTo(@Param("ids") Collection<Long> ids);
+
+   @Modifying(flushAutomatically = true, clearAutomatically = true)
+   @Query("DELETE FROM Employee e WHERE e.id IN :ids")
+   int deleteByIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,20 @@
+package com.eddie.vacation.repository;
+
+import com.eddie.vacation.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+   @Modifying
+   @Transactional
+   @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff") // one statement, no entity loading
+   int deleteExpired(@Param("cutoff") LocalDateTime cutoff);
+}
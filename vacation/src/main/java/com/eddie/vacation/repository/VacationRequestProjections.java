@@ -0,0 +1,16 @@
+package com.eddie.vacation.repository;
+
+import com.eddie.vacation.dto.RequestFieldSelection;
+
+import java.util.List;
+import java.util.Map;
+
+// narrow reads for fields=/expand=, implemented in VacationRequestProjectionsImpl
+public interface VacationRequestProjections {
+
+    /**
+     * Selects only the requested columns, optionally filtered by author and/or status
+     * (null means no filter). Associations are joined only when expanded.
+     */
+    List<Map<String, Object>> findProjected(RequestFieldSelection selection, Long authorId, String status);
+}
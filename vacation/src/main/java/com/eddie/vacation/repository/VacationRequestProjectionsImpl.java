@@ -0,0 +1,66 @@
+package com.eddie.vacation.repository;
+
+import com.eddie.vacation.dto.RequestFieldSelection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class VacationRequestProjectionsImpl implements VacationRequestProjections {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findProjected(RequestFieldSelection selection, Long authorId, String status) {
+        List<String> select = new ArrayList<>();
+        StringBuilder from = new StringBuilder(" FROM VacationRequest vr");
+        for (String field : selection.getFields()) {
+            if (RequestFieldSelection.ASSOCIATIONS.contains(field)) {
+                if (selection.isExpanded(field)) {
+                    from.append(" LEFT JOIN vr.").append(field).append(" ").append(field);
+                    select.add(field + " AS " + field);
+                } else {
+                    select.add("vr." + field + ".id AS " + field); // foreign key column, no join
+                }
+            } else {
+                select.add("vr." + field + " AS " + field);
+            }
+        }
+
+        List<String> where = new ArrayList<>();
+        if (authorId != null) {
+            where.add("vr.author.id = :authorId");
+        }
+        if (status != null) {
+            where.add("vr.status = :status");
+        }
+        String jpql = "SELECT " + String.join(", ", select) + from
+                + (where.isEmpty() ? "" : " WHERE " + String.join(" AND ", where));
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql, Tuple.class);
+        if (authorId != null) {
+            query.setParameter("authorId", authorId);
+        }
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+
+        List<Map<String, Object>> views = new ArrayList<>();
+        for (Tuple row : query.getResultList()) {
+            Map<String, Object> view = new LinkedHashMap<>();
+            for (String field : selection.getFields()) {
+                Object value = row.get(field);
+                boolean reference = RequestFieldSelection.ASSOCIATIONS.contains(field) && !selection.isExpanded(field);
+                view.put(field, reference ? RequestFieldSelection.reference(value) : value);
+            }
+            views.add(view);
+        }
+        return views;
+    }
+}
@@ -2,25 +2,43 @@ package com.eddie.vacation.repository;
 
 import com.eddie.vacation.model.VacationRequest;
 import com.eddie.vacation.model.Employee;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository //marking data access objects in this class as bean
-public interface VacationRequestRepository extends JpaRepository<VacationRequest, Long> {
+public interface VacationRequestRepository extends JpaRepository<VacationRequest, Long>, VacationRequestProjections {
 
    List<VacationRequest> findByAuthor(Employee employee);
 
    List<VacationRequest> findByAuthorAndStatus(Employee employee, String status);
 
+   // queries shared through ReadCoalescer load author and resolvedBy up front, the result
+   // is serialized on other threads after the loading session is gone
+   @Override
+   @EntityGraph(attributePaths = { "author", "resolvedBy" })
+   List<VacationRequest> findAll();
+
+   // not query-cached: a cache hit that fetches a null resolvedBy (expired requests) fails
+   // in Hibernate 6.6 once employees carry a @TenantId
+   @EntityGraph(attributePaths = { "author", "resolvedBy" })
    List<VacationRequest> findByStatus(String status);
 
    List<VacationRequest> findByResolvedBy(Employee manager);
 
+   @EntityGraph(attributePaths = { "author", "resolvedBy" })
    @Query("SELECT vr FROM VacationRequest vr " +
                    "WHERE vr.status = 'approved' " +
                    "AND vr.vacationStartDate <= :endDate " +
@@ -38,7 +56,145 @@ public interface VacationRequestRepository extends JpaRepository<VacationRequest
                    @Param("startDate") LocalDate startDate,
                    @Param("endDate") LocalDate endDate);
 
+   // set-based overlap check for a batch of submissions: every request of these authors in the batch's date envelope
+   @Query("SELECT vr FROM VacationRequest vr " +
+                   "WHERE vr.author.id IN :authorIds " +
+                   "AND vr.vacationStartDate <= :endDate " +
+                   "AND vr.vacationEndDate >= :startDate")
+   List<VacationRequest> findOverlappingRequestsForAuthors(
+                   @Param("authorIds") Collection<Long> authorIds,
+                   @Param("startDate") LocalDate startDate,
+                   @Param("endDate") LocalDate endDate);
+
+   // rows written by one batched insert, which stamps them all with the same creation time
+   @Query("SELECT vr FROM VacationRequest vr " +
+                   "WHERE vr.author.id IN :authorIds " +
+                   "AND vr.requestCreatedAt = :createdAt")
+   List<VacationRequest> findByAuthorIdsAndCreatedAt(
+                   @Param("authorIds") Collection<Long> authorIds,
+                   @Param("createdAt") LocalDateTime createdAt);
+
+   @EntityGraph(attributePaths = { "author" }) // pending requests have no resolvedBy, see findByStatus
+   @QueryHints({
+                   @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                   @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "pending-requests") })
    @Query("SELECT vr FROM VacationRequest vr " +
                    "WHERE vr.status = 'pending'") // For managers to see all requests pending approval
    List<VacationRequest> findAllPendingRequests();
+
+   // SLA deadlines are rebuilt from this at startup, ids and creation times only
+   @Query("SELECT vr.id AS id, vr.requestCreatedAt AS requestCreatedAt FROM VacationRequest vr " +
+                   "WHERE vr.status = 'pending'")
+   List<PendingSince> findPendingSince();
+
+   interface PendingSince {
+      Long getId();
+
+      LocalDateTime getRequestCreatedAt();
+   }
+
+   // usage analytics: requests starting in the period per author and status, aggregated in the database
+   @Query("SELECT a.id AS employeeId, a.name AS name, vr.status AS status, COUNT(vr) AS requests " +
+                   "FROM VacationRequest vr JOIN vr.author a " +
+                   "WHERE vr.vacationStartDate BETWEEN :from AND :to " +
+                   "GROUP BY a.id, a.name, vr.status")
+   List<StatusCount> countByAuthorAndStatus(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+   @Query("SELECT m.id AS employeeId, m.name AS name, vr.status AS status, COUNT(vr) AS requests " +
+                   "FROM VacationRequest vr JOIN vr.resolvedBy m " +
+                   "WHERE vr.vacationStartDate BETWEEN :from AND :to " +
+                   "GROUP BY m.id, m.name, vr.status")
+   List<StatusCount> countByResolverAndStatus(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+   // keyset pages of the period's decided requests, for metrics SQL cannot derive (working days, time to decision)
+   @Query("SELECT vr.id AS id, a.id AS authorId, a.region AS region, vr.resolvedBy.id AS resolvedById, " +
+                   "vr.status AS status, vr.requestCreatedAt AS requestCreatedAt, vr.resolvedAt AS resolvedAt, " +
+                   "vr.vacationStartDate AS vacationStartDate, vr.vacationEndDate AS vacationEndDate " +
+                   "FROM VacationRequest vr JOIN vr.author a " +
+                   "WHERE vr.status <> 'pending' " +
+                   "AND vr.vacationStartDate BETWEEN :from AND :to " +
+                   "AND vr.id > :afterId " +
+                   "ORDER BY vr.id")
+   List<DecidedRequest> findDecidedAfter(
+                   @Param("from") LocalDate from,
+                   @Param("to") LocalDate to,
+                   @Param("afterId") Long afterId,
+                   Limit limit);
+
+   interface StatusCount {
+      Long getEmployeeId();
+
+      String getName(); // null once the employee was offboarded (archived rows)
+
+      String getStatus();
+
+      Long getRequests();
+   }
+
+   interface DecidedRequest {
+      Long getId();
+
+      Long getAuthorId();
+
+      String getRegion();
+
+      Long getResolvedById();
+
+      String getStatus();
+
+      LocalDateTime getRequestCreatedAt();
+
+      LocalDateTime getResolvedAt();
+
+      LocalDate getVacationStartDate();
+
+      LocalDate getVacationEndDate();
+   }
+
+   // SLA auto-decision, a no-op when a manager resolved the request in the meantime
+   @Modifying(flushAutomatically = true, clearAutomatically = true)
+   @Query("UPDATE VacationRequest vr SET vr.status = 'rejected', vr.resolvedAt = :resolvedAt " +
+                   "WHERE vr.id = :id AND vr.status = 'pending'")
+   int rejectIfPending(@Param("id") Long id, @Param("resolvedAt") LocalDateTime resolvedAt);
+
+   @EntityGraph(attributePaths = { "author", "resolvedBy" })
+   // direct reports (idx_employees_manager), plus authors without a reporting line whom any
+   // manager but themselves may resolve, as updateRequestStatus allows
+   @Query("SELECT vr FROM VacationRequest vr " +
+                   "WHERE vr.status = 'pending' " +
+                   "AND (vr.author.reportsTo.id = :managerId " +
+                   "OR (vr.author.reportsTo IS NULL AND vr.author.id <> :managerId))")
+   List<VacationRequest> findPendingRequestsForManager(@Param("managerId") Long managerId);
+
+   @Query("SELECT vr FROM VacationRequest vr " +
+                   "WHERE vr.status = 'approved' " +
+                   "AND vr.author.department.id = :departmentId " +
+                   "AND vr.vacationEndDate >= :fromDate")
+   List<VacationRequest> findApprovedForDepartmentFrom(
+                   @Param("departmentId") Long departmentId,
+                   @Param("fromDate") LocalDate fromDate);
+
+   // archival candidates: resolved and ended before the cutoff, oldest first
+   @Query("SELECT vr.id FROM VacationRequest vr " +
+                   "WHERE vr.status <> 'pending' " +
+                   "AND vr.vacationEndDate < :cutoff " +
+                   "ORDER BY vr.id")
+   List<Long> findArchivableIds(@Param("cutoff") LocalDate cutoff, Limit limit);
+
+   @Modifying
+   @Query("DELETE FROM VacationRequest vr WHERE vr.id IN :ids")
+   int deleteByIds(@Param("ids") List<Long> ids);
+
+   // employee offboarding: own requests go, requests they resolved stay without a resolver
+   @Modifying
+   @Query("DELETE FROM VacationRequest vr WHERE vr.author.id IN :authorIds")
+   int deleteByAuthorIds(@Param("authorIds") Collection<Long> authorIds);
+
+   // employees whose request lists embed these managers as resolvedBy
+   @Query("SELECT DISTINCT vr.author.id FROM VacationRequest vr WHERE vr.resolvedBy.id IN :managerIds")
+   List<Long> findAuthorIdsResolvedBy(@Param("managerIds") Collection<Long> managerIds);
+
+   @Modifying
+   @Query("UPDATE VacationRequest vr SET vr.resolvedBy = null WHERE vr.resolvedBy.id IN :managerIds")
+   int clearResolvedBy(@Param("managerIds") Collection<Long> managerIds);
 }
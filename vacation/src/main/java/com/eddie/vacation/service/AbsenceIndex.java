@@ -0,0 +1,216 @@
+package com.eddie.vacation.service;
+
+import com.eddie.vacation.event.EmployeesOffboardedEvent;
+import com.eddie.vacation.event.VacationRequestChangedEvent;
+import com.eddie.vacation.model.VacationRequest;
+import com.eddie.vacation.repository.VacationRequestRepository;
+import com.eddie.vacation.tenant.TenantContext;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Who is off on which day, as one Roaring bitmap of employee ordinals per calendar day,
+ * built from approved requests. Loaded once at startup (approved requests ending within
+ * the look-back window or later) and then kept current from request change events, so
+ * "absent on day X within this team" is a bitmap AND instead of a query.
+ * Adding and removing bits is idempotent, so an event for a change the load already saw is harmless.
+ * Each tenant has its own index, loaded under that tenant the first time it is asked for
+ * (the default tenant at startup); approvals only ever come from the tenant's own requests.
+ */
+@Component
+@Order(0) // loads before StartupWarmup samples it
+public class AbsenceIndex implements ApplicationRunner {
+
+    private static final LocalDate OPEN_END = LocalDate.of(9999, 12, 31);
+
+    private final VacationRequestRepository requestRepository;
+    private final int lookbackDays;
+    private final Map<String, TenantIndex> tenants = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AbsenceIndex(VacationRequestRepository requestRepository,
+            @Value("${vacation.absence-index.lookback-days:90}") int lookbackDays) {
+        this.requestRepository = requestRepository;
+        this.lookbackDays = lookbackDays;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        current().ensureLoaded(); // before the app reports ready
+    }
+
+    /**
+     * Employees absent on each day of the range, restricted to {@code team} when given.
+     * Days without anyone absent are left out.
+     */
+    public Map<LocalDate, List<Long>> absentBetween(LocalDate startDate, LocalDate endDate, Collection<Long> team) {
+        TenantIndex index = current();
+        index.ensureLoaded();
+        index.lock.readLock().lock();
+        try {
+            if (startDate.isBefore(index.indexedFrom)) {
+                throw new IllegalArgumentException("Absences are only indexed from " + index.indexedFrom);
+            }
+            RoaringBitmap teamBits = team == null ? null : index.teamBitmap(team);
+            Map<LocalDate, List<Long>> result = new LinkedHashMap<>();
+            for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+                RoaringBitmap absent = index.absentByDay.get(day);
+                if (absent == null) {
+                    continue;
+                }
+                RoaringBitmap matching = teamBits == null ? absent : RoaringBitmap.and(absent, teamBits);
+                if (!matching.isEmpty()) {
+                    result.put(day, index.toEmployeeIds(matching));
+                }
+            }
+            return result;
+        } finally {
+            index.lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestChanged(VacationRequestChangedEvent event) {
+        boolean nowApproved = "approved".equals(event.status());
+        boolean wasApproved = "approved".equals(event.previousStatus());
+        if (nowApproved == wasApproved) {
+            return;
+        }
+        TenantIndex index = tenants.get(TenantContext.current()); // published by the tenant's own request
+        if (index == null) {
+            return; // not loaded, the load will read this change from the database
+        }
+        index.lock.writeLock().lock();
+        try {
+            if (index.indexedFrom == null) {
+                return;
+            }
+            if (nowApproved) {
+                index.add(event.authorId(), event.vacationStartDate(), event.vacationEndDate());
+            } else {
+                index.remove(event.authorId(), event.vacationStartDate(), event.vacationEndDate());
+            }
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeesOffboarded(EmployeesOffboardedEvent event) {
+        for (TenantIndex index : tenants.values()) { // ids are unique across tenants
+            index.lock.writeLock().lock();
+            try {
+                for (Long employeeId : event.employeeIds()) {
+                    Integer ordinal = index.ordinals.get(employeeId);
+                    if (ordinal != null) {
+                        index.absentByDay.values().forEach(bits -> bits.remove(ordinal));
+                    }
+                }
+                index.absentByDay.values().removeIf(RoaringBitmap::isEmpty);
+            } finally {
+                index.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private TenantIndex current() {
+        return tenants.computeIfAbsent(TenantContext.current(), tenant -> new TenantIndex());
+    }
+
+    private final class TenantIndex {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<LocalDate, RoaringBitmap> absentByDay = new HashMap<>();
+        private final Map<Long, Integer> ordinals = new HashMap<>(); // employee id -> bit position
+        private final List<Long> employeeIds = new ArrayList<>(); // bit position -> employee id
+        private LocalDate indexedFrom; // null until loaded
+
+        // runs on a thread of the index's tenant, so the query only sees that tenant's requests
+        void ensureLoaded() {
+            lock.readLock().lock();
+            try {
+                if (indexedFrom != null) {
+                    return;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            lock.writeLock().lock();
+            try {
+                if (indexedFrom != null) {
+                    return;
+                }
+                LocalDate from = LocalDate.now().minusDays(lookbackDays);
+                for (VacationRequest request : requestRepository.findOverlappingApprovedRequests(from, OPEN_END)) {
+                    LocalDate start = request.getVacationStartDate().isBefore(from) ? from : request.getVacationStartDate();
+                    add(request.getAuthor().getId(), start, request.getVacationEndDate());
+                }
+                absentByDay.values().forEach(RoaringBitmap::runOptimize); // long absences compress to runs
+                indexedFrom = from;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // callers hold the write lock
+        void add(Long employeeId, LocalDate startDate, LocalDate endDate) {
+            int ordinal = ordinals.computeIfAbsent(employeeId, id -> {
+                employeeIds.add(id);
+                return employeeIds.size() - 1;
+            });
+            for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+                absentByDay.computeIfAbsent(day, d -> new RoaringBitmap()).add(ordinal);
+            }
+        }
+
+        void remove(Long employeeId, LocalDate startDate, LocalDate endDate) {
+            Integer ordinal = ordinals.get(employeeId);
+            if (ordinal == null) {
+                return;
+            }
+            for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+                RoaringBitmap bits = absentByDay.get(day);
+                if (bits != null) {
+                    bits.remove(ordinal);
+                    if (bits.isEmpty()) {
+                        absentByDay.remove(day);
+                    }
+                }
+            }
+        }
+
+        RoaringBitmap teamBitmap(Collection<Long> team) {
+            RoaringBitmap bits = new RoaringBitmap();
+            for (Long employeeId : team) {
+                Integer ordinal = ordinals.get(employeeId);
+                if (ordinal != null) { // never absent so far, or of another tenant
+                    bits.add(ordinal);
+                }
+            }
+            return bits;
+        }
+
+        List<Long> toEmployeeIds(RoaringBitmap bits) {
+            List<Long> ids = new ArrayList<>(bits.getCardinality());
+            bits.forEach((int ordinal) -> ids.add(employeeIds.get(ordinal)));
+            return ids;
+        }
+    }
+}
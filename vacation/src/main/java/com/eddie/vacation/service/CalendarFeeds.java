@@ -0,0 +1,333 @@
+package com.eddie.vacation.service;
+
+import com.eddie.vacation.event.EmployeeChangedEvent;
+import com.eddie.vacation.event.EmployeesOffboardedEvent;
+import com.eddie.vacation.event.VacationRequestChangedEvent;
+import com.eddie.vacation.event.VacationRequestsArchivedEvent;
+import com.eddie.vacation.exception.EmployeeNotFoundException;
+import com.eddie.vacation.model.Department;
+import com.eddie.vacation.model.Employee;
+import com.eddie.vacation.model.VacationRequest;
+import com.eddie.vacation.repository.DepartmentRepository;
+import com.eddie.vacation.repository.EmployeeRepository;
+import com.eddie.vacation.repository.VacationRequestRepository;
+import com.eddie.vacation.tenant.TenantContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * iCalendar feeds of approved leave, one per employee and one per department, for calendar
+ * apps that poll the URL every few minutes. A feed is kept as its rendered bytes plus one
+ * rendered VEVENT per request; an approval (or its reversal) re-renders only that event and
+ * splices the body in the cached feeds it belongs to, so a poll is a map lookup and a 304 or
+ * a byte copy. Feeds are built on first request, from the database, and bounded in number.
+ * Ids are unique across tenants, so a feed is cached by id and only served to its own tenant.
+ */
+@Component
+public class CalendarFeeds implements MeterBinder {
+
+    public static final String CONTENT_TYPE = "text/calendar;charset=UTF-8";
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter UTC_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    private final VacationRequestRepository requestRepository;
+    private final EmployeeRepository employeeRepository;
+    private final DepartmentRepository departmentRepository;
+    private final ReadCoalescer readCoalescer;
+    private final TransactionTemplate transactionTemplate;
+    private final int lookbackDays;
+
+    private final Map<String, Entry> feeds; // least recently polled evicted first
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong built = new AtomicLong();
+    private final AtomicLong patched = new AtomicLong();
+
+    @Autowired
+    public CalendarFeeds(VacationRequestRepository requestRepository,
+            EmployeeRepository employeeRepository,
+            DepartmentRepository departmentRepository,
+            ReadCoalescer readCoalescer,
+            PlatformTransactionManager transactionManager,
+            @Value("${vacation.calendar-feed.max-feeds:10000}") int maxFeeds,
+            @Value("${vacation.calendar-feed.team-lookback-days:90}") int lookbackDays) {
+        if (maxFeeds < 1 || lookbackDays < 0) {
+            throw new IllegalArgumentException("Calendar feed bound must be positive");
+        }
+        this.requestRepository = requestRepository;
+        this.employeeRepository = employeeRepository;
+        this.departmentRepository = departmentRepository;
+        this.readCoalescer = readCoalescer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.lookbackDays = lookbackDays;
+        this.feeds = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxFeeds;
+            }
+        });
+    }
+
+    /** Approved leave of one employee. */
+    public Feed employeeFeed(Long employeeId) {
+        return feed(employeeKey(employeeId), () -> {
+            Employee employee = employeeRepository.findById(employeeId)
+                    .orElseThrow(() -> new EmployeeNotFoundException("Employee not found"));
+            NavigableMap<Long, byte[]> events = new TreeMap<>();
+            for (VacationRequest request : requestRepository.findByAuthorAndStatus(employee, "approved")) {
+                events.put(request.getId(), renderEvent(request.getId(), "Vacation",
+                        request.getVacationStartDate(), request.getVacationEndDate(), stampOf(request)));
+            }
+            return new Entry(TenantContext.current(), employee.getName() + " - vacation", null, events);
+        });
+    }
+
+    /** Approved leave of everyone in a department, from the look-back window on. */
+    public Feed departmentFeed(Long departmentId) {
+        return feed(departmentKey(departmentId), () -> {
+            Department department = departmentRepository.findById(departmentId)
+                    .orElseThrow(() -> new EntityNotFoundException("Department not found"));
+            LocalDate from = LocalDate.now().minusDays(lookbackDays);
+            NavigableMap<Long, byte[]> events = new TreeMap<>();
+            for (VacationRequest request : requestRepository.findApprovedForDepartmentFrom(departmentId, from)) {
+                events.put(request.getId(), renderEvent(request.getId(), request.getAuthor().getName() + " - vacation",
+                        request.getVacationStartDate(), request.getVacationEndDate(), stampOf(request)));
+            }
+            return new Entry(TenantContext.current(), department.getName() + " - team vacations", from, events);
+        });
+    }
+
+    private Feed feed(String key, Supplier<Entry> build) {
+        served.incrementAndGet();
+        Entry cached = feeds.get(key);
+        if (cached != null && cached.tenant.equals(TenantContext.current())) { // otherwise the build fails with 404
+            return cached.feed;
+        }
+        long gen = generation.get();
+        // pollers of the same feed share one build
+        Entry entry = readCoalescer.coalesce("calendar-feed-" + key, () -> {
+            built.incrementAndGet();
+            return transactionTemplate.execute(status -> build.get());
+        });
+        feeds.put(key, entry);
+        if (generation.get() != gen) {
+            feeds.remove(key, entry); // a change committed while it was built, next poll rebuilds
+        }
+        return entry.feed;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestChanged(VacationRequestChangedEvent event) {
+        boolean nowApproved = "approved".equals(event.status());
+        boolean wasApproved = "approved".equals(event.previousStatus());
+        if (nowApproved == wasApproved) {
+            return; // pending requests never show up in feeds
+        }
+        generation.incrementAndGet();
+        Employee author = employeeRepository.findById(event.authorId()).orElse(null);
+        if (author == null) {
+            feeds.remove(employeeKey(event.authorId()));
+            return;
+        }
+        Instant stamp = stampOf(event.changedAt());
+        patch(employeeKey(author.getId()), event, nowApproved, "Vacation", stamp);
+        if (author.getDepartment() != null) {
+            patch(departmentKey(author.getDepartment().getId()), event, nowApproved,
+                    author.getName() + " - vacation", stamp);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestsArchived(VacationRequestsArchivedEvent event) {
+        generation.incrementAndGet();
+        event.authorIds().forEach(id -> feeds.remove(employeeKey(id))); // team feeds only look back a few months
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        generation.incrementAndGet();
+        feeds.remove(employeeKey(event.employeeId()));
+        // the name shows in the team's feed, and a move takes the leave from one team to the other
+        if (event.previousDepartmentId() != null) {
+            feeds.remove(departmentKey(event.previousDepartmentId()));
+        }
+        if (event.departmentId() != null) {
+            feeds.remove(departmentKey(event.departmentId()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeesOffboarded(EmployeesOffboardedEvent event) {
+        generation.incrementAndGet();
+        event.employeeIds().forEach(id -> feeds.remove(employeeKey(id)));
+        event.departmentIds().forEach(id -> feeds.remove(departmentKey(id)));
+    }
+
+    private void patch(String key, VacationRequestChangedEvent event, boolean approved, String summary, Instant stamp) {
+        feeds.computeIfPresent(key, (k, entry) -> {
+            patched.incrementAndGet();
+            if (!approved) {
+                return entry.without(event.requestId());
+            }
+            if (entry.from != null && event.vacationEndDate().isBefore(entry.from)) {
+                return entry; // before the window of this feed
+            }
+            return entry.with(event.requestId(), renderEvent(event.requestId(), summary,
+                    event.vacationStartDate(), event.vacationEndDate(), stamp));
+        });
+    }
+
+    private static String employeeKey(Long employeeId) {
+        return "employee:" + employeeId;
+    }
+
+    private static String departmentKey(Long departmentId) {
+        return "department:" + departmentId;
+    }
+
+    public int getCachedCount() {
+        return feeds.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("vacation.calendar-feeds.polls", served, AtomicLong::get).register(registry);
+        FunctionCounter.builder("vacation.calendar-feeds.renders", built, AtomicLong::get)
+                .tag("kind", "full").register(registry);
+        FunctionCounter.builder("vacation.calendar-feeds.renders", patched, AtomicLong::get)
+                .tag("kind", "incremental").register(registry);
+        Gauge.builder("vacation.calendar-feeds.cached", this, CalendarFeeds::getCachedCount).register(registry);
+    }
+
+    // last change of the request, so a rebuilt feed renders the same bytes as a patched one
+    private static Instant stampOf(VacationRequest request) {
+        return stampOf(request.getResolvedAt() != null ? request.getResolvedAt() : request.getRequestCreatedAt());
+    }
+
+    private static Instant stampOf(LocalDateTime changedAt) {
+        return changedAt.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    static byte[] renderEvent(Long requestId, String summary, LocalDate start, LocalDate end, Instant stamp) {
+        StringBuilder ics = new StringBuilder(256);
+        line(ics, "BEGIN:VEVENT");
+        line(ics, "UID:vacation-request-" + requestId + "@vacation");
+        line(ics, "DTSTAMP:" + UTC_TIME.format(stamp.atOffset(ZoneOffset.UTC)));
+        line(ics, "DTSTART;VALUE=DATE:" + DATE.format(start));
+        line(ics, "DTEND;VALUE=DATE:" + DATE.format(end.plusDays(1))); // exclusive for all-day events
+        line(ics, "SUMMARY:" + escape(summary));
+        line(ics, "TRANSP:TRANSPARENT");
+        line(ics, "END:VEVENT");
+        return ics.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // TEXT values (RFC 5545 3.3.11)
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace(";", "\\;").replace(",", "\\,").replace("\n", "\\n");
+    }
+
+    // content lines are folded at 75 octets, continuation lines start with a space
+    private static void line(StringBuilder ics, String content) {
+        int octets = 0;
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            int size = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + size > 75) {
+                ics.append("\r\n ");
+                octets = 1;
+            }
+            ics.appendCodePoint(codePoint);
+            octets += size;
+            i += Character.charCount(codePoint);
+        }
+        ics.append("\r\n");
+    }
+
+    /** Rendered feed, shared by every poll until it changes. Callers must not modify the body. */
+    public record Feed(byte[] body, String etag) {
+    }
+
+    // immutable, changes produce a new entry
+    private static final class Entry {
+        private final String tenant;
+        private final String name;
+        private final LocalDate from; // window start of department feeds, null for employee feeds
+        private final NavigableMap<Long, byte[]> events;
+        private final Feed feed;
+
+        private Entry(String tenant, String name, LocalDate from, NavigableMap<Long, byte[]> events) {
+            this.tenant = tenant;
+            this.name = name;
+            this.from = from;
+            this.events = events;
+            this.feed = assemble(name, events);
+        }
+
+        Entry with(Long requestId, byte[] event) {
+            NavigableMap<Long, byte[]> copy = new TreeMap<>(events);
+            copy.put(requestId, event);
+            return new Entry(tenant, name, from, copy);
+        }
+
+        Entry without(Long requestId) {
+            if (!events.containsKey(requestId)) {
+                return this;
+            }
+            NavigableMap<Long, byte[]> copy = new TreeMap<>(events);
+            copy.remove(requestId);
+            return new Entry(tenant, name, from, copy);
+        }
+
+        private static Feed assemble(String name, NavigableMap<Long, byte[]> events) {
+            StringBuilder header = new StringBuilder(256);
+            line(header, "BEGIN:VCALENDAR");
+            line(header, "VERSION:2.0");
+            line(header, "PRODID:-//Vacation API//Leave calendar//EN");
+            line(header, "CALSCALE:GREGORIAN");
+            line(header, "METHOD:PUBLISH");
+            line(header, "X-WR-CALNAME:" + escape(name));
+            byte[] head = header.toString().getBytes(StandardCharsets.UTF_8);
+            byte[] tail = "END:VCALENDAR\r\n".getBytes(StandardCharsets.UTF_8);
+
+            int size = head.length + tail.length;
+            for (byte[] event : events.values()) {
+                size += event.length;
+            }
+            ByteArrayOutputStream body = new ByteArrayOutputStream(size);
+            body.writeBytes(head);
+            events.values().forEach(body::writeBytes);
+            body.writeBytes(tail);
+            byte[] bytes = body.toByteArray();
+            return new Feed(bytes, "W/\"ics-" + DigestUtils.md5DigestAsHex(bytes) + "\""); // weak, or Tomcat won't gzip
+        }
+    }
+}
@@ -1,21 +1,37 @@
 package com.eddie.vacation.service;
 
+import com.eddie.vacation.event.EmployeeChangedEvent;
+import com.eddie.vacation.event.EmployeesOffboardedEvent;
 import com.eddie.vacation.model.Employee;
 import com.eddie.vacation.repository.EmployeeRepository;
+import com.eddie.vacation.repository.VacationRequestRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.persistence.EntityNotFoundException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 public class EmployeeService {
 
+    private static final int OFFBOARDING_CHUNK = 500; // ids per IN list
+
     private final EmployeeRepository employeeRepository;
+    private final VacationRequestRepository requestRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public EmployeeService(EmployeeRepository employeeRepository) {
+    public EmployeeService(EmployeeRepository employeeRepository, VacationRequestRepository requestRepository,
+            ApplicationEventPublisher eventPublisher) {
         this.employeeRepository = employeeRepository;
+        this.requestRepository = requestRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public Employee getEmployeeById(Long id) {
@@ -37,16 +53,60 @@ public class EmployeeService {
 
     public Employee updateEmployee(Long id, Employee employeeDetails) {
         Employee employee = getEmployeeById(id);
+        Long previousDepartmentId = departmentId(employee);
+        if (employeeDetails.getDepartment() != null) { // not in the JSON, only set by callers moving the employee
+            employee.setDepartment(employeeDetails.getDepartment());
+        }
         employee.setName(employeeDetails.getName());
         employee.setEmail(employeeDetails.getEmail());
         employee.setManager(employeeDetails.isManager());
         employee.setRemainingVacationDays(employeeDetails.getRemainingVacationDays());
-        return employeeRepository.save(employee);
+        employee.setRegion(employeeDetails.getRegion());
+        Employee saved = employeeRepository.save(employee);
+        eventPublisher.publishEvent(new EmployeeChangedEvent(id, previousDepartmentId, departmentId(saved),
+                requestRepository.findAuthorIdsResolvedBy(List.of(id))));
+        return saved;
+    }
+
+    private static Long departmentId(Employee employee) {
+        return employee.getDepartment() == null ? null : employee.getDepartment().getId();
     }
 
+    @Transactional
     public void deleteEmployee(Long id) {
-        Employee employee = getEmployeeById(id);
-        employeeRepository.delete(employee);
+        if (!employeeRepository.existsById(id)) {
+            throw new EntityNotFoundException("Employee not found with id: " + id);
+        }
+        offboardEmployees(List.of(id));
+    }
+
+    /**
+     * Removes the employees and their own requests with bulk statements, in chunks, so memory
+     * use does not depend on how many requests they wrote or resolved. Requests they resolved
+     * for others are kept with the resolver cleared, and their direct reports lose the
+     * reporting line. Unknown ids are ignored.
+     *
+     * @return number of employees removed
+     */
+    @Transactional
+    public int offboardEmployees(Collection<Long> employeeIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(employeeIds));
+        List<Long> departmentIds = new ArrayList<>();
+        Set<Long> resolvedForIds = new LinkedHashSet<>();
+        int removed = 0;
+        for (int from = 0; from < ids.size(); from += OFFBOARDING_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + OFFBOARDING_CHUNK, ids.size()));
+            departmentIds.addAll(employeeRepository.findDepartmentIds(chunk));
+            resolvedForIds.addAll(requestRepository.findAuthorIdsResolvedBy(chunk));
+            requestRepository.clearResolvedBy(chunk);
+            requestRepository.deleteByAuthorIds(chunk);
+            employeeRepository.clearReportsTo(chunk);
+            removed += employeeRepository.deleteByIds(chunk);
+        }
+        ids.forEach(resolvedForIds::remove);
+        eventPublisher.publishEvent(new EmployeesOffboardedEvent(ids, departmentIds.stream().distinct().toList(),
+                List.copyOf(resolvedForIds)));
+        return removed;
     }
 
     public int getRemainingVacationDays(Long employeeId) {
@@ -0,0 +1,87 @@
+package com.eddie.vacation.service;
+
+import com.eddie.vacation.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One lock per employee, held from the check-then-insert in createRequest until the
+ * transaction has committed, so a second submission only runs its overlap check once
+ * the first insert is visible. Locks exist only while someone holds or waits for them,
+ * so different employees never share (and never contend on) a lock.
+ */
+@Component
+public class EmployeeWriteLocks {
+
+    private final Map<Long, LockEntry> locks = new ConcurrentHashMap<>();
+    private final long timeoutMillis;
+
+    @Autowired
+    public EmployeeWriteLocks(@Value("${vacation.locks.employee-timeout-ms:5000}") long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Locks the employee until the current transaction completes (commit or rollback).
+     */
+    public void lockUntilTransactionEnds(Long employeeId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Employee write locks must be taken inside a transaction");
+        }
+
+        LockEntry entry = acquire(employeeId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                release(employeeId, entry);
+            }
+        });
+    }
+
+    int activeLocks() {
+        return locks.size();
+    }
+
+    private LockEntry acquire(Long employeeId) {
+        LockEntry entry = locks.compute(employeeId, (id, existing) -> {
+            LockEntry e = existing == null ? new LockEntry() : existing;
+            e.users++; // only mutated inside compute, so the count is consistent
+            return e;
+        });
+
+        boolean locked;
+        try {
+            locked = entry.lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            locked = false;
+        }
+        if (!locked) {
+            forget(employeeId);
+            throw new TooManyRequestsException("Another request for this employee is still being processed", 1);
+        }
+        return entry;
+    }
+
+    private void release(Long employeeId, LockEntry entry) {
+        entry.lock.unlock();
+        forget(employeeId);
+    }
+
+    private void forget(Long employeeId) {
+        locks.compute(employeeId, (id, e) -> --e.users == 0 ? null : e);
+    }
+
+    private static final class LockEntry {
+        private final ReentrantLock lock = new ReentrantLock();
+        private int users;
+    }
+}
@@ -0,0 +1,86 @@
+package com.eddie.vacation.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.h2.engine.SessionLocal;
+import org.h2.jdbc.JdbcConnection;
+import org.h2.mvstore.MVStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Background upkeep of the on-disk MVStore in the durable profile. MVStore only appends,
+ * so pages rewritten by updates leave dead space behind; this job moves live pages out of
+ * sparse chunks while the application keeps running, instead of leaving all of it to
+ * the compaction at shutdown. Each run writes at most compact-write-limit-mb.
+ */
+@Component
+@Profile("durable")
+public class H2StoreMaintenance implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(H2StoreMaintenance.class);
+
+    private final DataSource dataSource;
+    private final int targetFillRate;
+    private final int writeLimitBytes;
+
+    @Autowired
+    public H2StoreMaintenance(DataSource dataSource,
+            @Value("${vacation.h2.target-fill-rate:80}") int targetFillRate,
+            @Value("${vacation.h2.compact-write-limit-mb:16}") int writeLimitMb) {
+        if (targetFillRate < 1 || targetFillRate > 100) {
+            throw new IllegalArgumentException("Target fill rate must be between 1 and 100");
+        }
+        this.dataSource = dataSource;
+        this.targetFillRate = targetFillRate;
+        this.writeLimitBytes = writeLimitMb * 1024 * 1024;
+    }
+
+    @Scheduled(fixedDelayString = "${vacation.h2.compact-interval-ms:300000}",
+            initialDelayString = "${vacation.h2.compact-interval-ms:300000}")
+    public void compactOnline() {
+        try (Connection connection = dataSource.getConnection()) {
+            MVStore store = mvStore(connection);
+            int before = store.getFillRate();
+            if (before >= targetFillRate) {
+                return;
+            }
+            if (store.compact(targetFillRate, writeLimitBytes)) {
+                store.commit();
+                log.info("Compacted H2 store, fill rate {}% -> {}%", before, store.getFillRate());
+            }
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Online compaction of the H2 store failed, will retry on the next run", e);
+        }
+    }
+
+    /** Percentage of the store file that holds live data. */
+    public int fillRate() {
+        try (Connection connection = dataSource.getConnection()) {
+            return mvStore(connection).getFillRate();
+        } catch (SQLException e) {
+            return -1;
+        }
+    }
+
+    private static MVStore mvStore(Connection connection) throws SQLException {
+        SessionLocal session = (SessionLocal) connection.unwrap(JdbcConnection.class).getSession();
+        return session.getDatabase().getStore().getMvStore();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("vacation.h2.fill_rate", this, H2StoreMaintenance::fillRate)
+                .baseUnit("percent").register(registry);
+    }
+}
@@ -0,0 +1,131 @@
+package com.eddie.vacation.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-level hashed timing wheel: a timer hashes by its deadline tick into one of a fixed
+ * number of buckets (doubly linked lists), so scheduling and cancelling are O(1) however many
+ * timers are outstanding. Advancing visits one bucket per elapsed tick and expires the timers
+ * in it that are due; timers further out than one rotation simply stay in their bucket until
+ * their tick comes round again. Deadlines are rounded up to the next tick, so a timer never
+ * fires early. Time is passed in by the caller (epoch millis), which lets tests drive it by hand.
+ */
+public final class HashedTimingWheel<T> {
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final Timer<T>[] buckets; // sentinel heads of circular lists
+    private final int mask;
+    private long nextTick; // first tick not processed yet
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis < 1 || wheelSize < 1 || wheelSize > 1 << 30) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        int length = wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1; // power of two for masking
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.buckets = new Timer[length];
+        for (int i = 0; i < length; i++) {
+            buckets[i] = new Timer<>(null, -1);
+            buckets[i].prev = buckets[i];
+            buckets[i].next = buckets[i];
+        }
+        this.mask = length - 1;
+    }
+
+    /**
+     * Registers {@code payload} to expire at {@code deadlineMillis}. Deadlines already in the
+     * past expire on the next {@link #advanceTo}.
+     */
+    public synchronized Timer<T> schedule(T payload, long deadlineMillis) {
+        long tick = Math.max(-Math.floorDiv(startMillis - deadlineMillis, tickMillis), nextTick); // ceiling
+        Timer<T> timer = new Timer<>(payload, tick);
+        Timer<T> head = buckets[(int) (tick & mask)];
+        timer.prev = head.prev;
+        timer.next = head;
+        head.prev.next = timer;
+        head.prev = timer;
+        size++;
+        return timer;
+    }
+
+    /**
+     * @return false when the timer already expired or was cancelled
+     */
+    public synchronized boolean cancel(Timer<T> timer) {
+        if (timer.next == null) {
+            return false;
+        }
+        unlink(timer);
+        return true;
+    }
+
+    /**
+     * Moves the wheel up to {@code nowMillis} and returns the payloads of every timer that
+     * became due, removed from the wheel.
+     */
+    public synchronized List<T> advanceTo(long nowMillis) {
+        long target = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        List<T> expired = new ArrayList<>();
+        if (target < nextTick) {
+            return expired;
+        }
+        if (target - nextTick >= buckets.length) {
+            // a full rotation or more went by (tests, a long pause): one sweep covers every tick
+            for (Timer<T> head : buckets) {
+                expire(head, target, expired);
+            }
+        } else {
+            for (long tick = nextTick; tick <= target; tick++) {
+                expire(buckets[(int) (tick & mask)], tick, expired);
+            }
+        }
+        nextTick = target + 1;
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void expire(Timer<T> head, long upToTick, List<T> expired) {
+        Timer<T> timer = head.next;
+        while (timer != head) {
+            Timer<T> next = timer.next;
+            if (timer.tick <= upToTick) {
+                unlink(timer);
+                expired.add(timer.payload);
+            }
+            timer = next;
+        }
+    }
+
+    private void unlink(Timer<T> timer) {
+        timer.prev.next = timer.next;
+        timer.next.prev = timer.prev;
+        timer.prev = null;
+        timer.next = null;
+        size--;
+    }
+
+    /** Handle for cancelling; linked into its bucket while pending. */
+    public static final class Timer<T> {
+        private final T payload;
+        private final long tick;
+        private Timer<T> prev;
+        private Timer<T> next;
+
+        private Timer(T payload, long tick) {
+            this.payload = payload;
+            this.tick = tick;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.eddie.vacation.service;
+
+import com.eddie.vacation.exception.IdempotencyConflictException;
+import com.eddie.vacation.model.IdempotencyRecord;
+import com.eddie.vacation.repository.IdempotencyRecordRepository;
+import com.eddie.vacation.tenant.TenantContext;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Dedupe store behind the Idempotency-Key header of the write endpoints.
+ * The first call with a key runs the write; retries with the same key get the stored
+ * response back without touching VacationService, and retries that arrive while the
+ * first call is still running wait for its result instead of running in parallel.
+ * Entries live in a bounded in-memory map with a TTL, optionally backed by the
+ * idempotency_records table so replays survive a restart.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>(); // oldest first, for eviction
+    private final Duration ttl;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Duration waitTimeout;
+    private final IdempotencyRecordRepository recordRepository; // null unless persistence is enabled
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public IdempotencyStore(@Value("${vacation.idempotency.ttl:24h}") Duration ttl,
+            @Value("${vacation.idempotency.max-entries:10000}") int maxEntries,
+            @Value("${vacation.idempotency.wait-timeout:10s}") Duration waitTimeout,
+            @Value("${vacation.idempotency.persistent:false}") boolean persistent,
+            ObjectProvider<IdempotencyRecordRepository> recordRepository,
+            ObjectMapper objectMapper) {
+        this.ttl = ttl;
+        this.ttlMillis = ttl.toMillis();
+        this.maxEntries = maxEntries;
+        this.waitTimeout = waitTimeout;
+        this.recordRepository = persistent ? recordRepository.getObject() : null;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Runs {@code write} at most once per tenant, key and scope. Without a key the write simply runs.
+     *
+     * @param scope   method and path, so the same key on another endpoint is a different entry
+     * @param payload request body, used to reject a key reused for a different request
+     */
+    public ResponseEntity<?> execute(String idempotencyKey, String scope, Object payload,
+            Supplier<ResponseEntity<?>> write) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return write.get();
+        }
+
+        String key = TenantContext.current() + "|" + scope + "|" + idempotencyKey.trim();
+        String fingerprint = fingerprint(payload);
+        long now = System.currentTimeMillis();
+
+        Entry entry = new Entry(fingerprint, now);
+        Entry existing = entries.putIfAbsent(key, entry);
+        if (existing != null && existing.isExpired(now, ttlMillis)) {
+            entries.remove(key, existing);
+            existing = entries.putIfAbsent(key, entry);
+        }
+        if (existing != null) {
+            return replay(existing, fingerprint);
+        }
+        insertionOrder.add(key);
+        evictIfNeeded(now);
+
+        IdempotencyRecord stored = findPersisted(key);
+        if (stored != null) {
+            entry.fingerprint = stored.getFingerprint(); // the original request's, this one may differ
+            entry.response.complete(fromRecord(stored));
+            return replay(entry, fingerprint);
+        }
+
+        ResponseEntity<?> response;
+        try {
+            response = write.get();
+        } catch (RuntimeException e) {
+            entries.remove(key, entry); // nothing was stored, a retry may run again
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+
+        entry.response.complete(response);
+        if (isReplayable(response)) {
+            persist(key, fingerprint, response);
+        } else {
+            entries.remove(key, entry); // waiters share this answer, later retries run again
+        }
+        return response;
+    }
+
+    private ResponseEntity<?> replay(Entry entry, String fingerprint) {
+        ResponseEntity<?> original;
+        try {
+            original = entry.response.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException("A request with this Idempotency-Key is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("A request with this Idempotency-Key is still in progress");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause; // the first execution failed, report the same failure
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        // compared only now: an entry restored from the database gets its fingerprint before it completes
+        if (!entry.fingerprint.equals(fingerprint)) {
+            throw new IdempotencyConflictException("Idempotency-Key was already used for a different request");
+        }
+
+        return ResponseEntity.status(original.getStatusCode())
+                .headers(original.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(original.getBody());
+    }
+
+    // 429 and 5xx are transient, the client should be able to retry them for real
+    private static boolean isReplayable(ResponseEntity<?> response) {
+        HttpStatus status = HttpStatus.resolve(response.getStatusCode().value());
+        return status != null && !status.is5xxServerError() && status != HttpStatus.TOO_MANY_REQUESTS;
+    }
+
+    private synchronized void evictIfNeeded(long now) {
+        while (entries.size() > maxEntries || isHeadExpired(now)) {
+            String oldest = insertionOrder.peek();
+            if (oldest == null) {
+                return;
+            }
+            Entry entry = entries.get(oldest);
+            if (entry != null && !entry.response.isDone()) {
+                return; // never evict an in-flight execution, the bound catches up once it completes
+            }
+            insertionOrder.poll();
+            if (entry != null) {
+                entries.remove(oldest, entry);
+            }
+        }
+    }
+
+    private boolean isHeadExpired(long now) {
+        String oldest = insertionOrder.peek();
+        if (oldest == null) {
+            return false;
+        }
+        Entry entry = entries.get(oldest);
+        return entry == null || entry.isExpired(now, ttlMillis);
+    }
+
+    private IdempotencyRecord findPersisted(String key) {
+        if (recordRepository == null) {
+            return null;
+        }
+        return recordRepository.findById(key)
+                .filter(r -> r.getCreatedAt().isAfter(LocalDateTime.now().minus(ttl)))
+                .orElse(null);
+    }
+
+    private void persist(String key, String fingerprint, ResponseEntity<?> response) {
+        if (recordRepository == null) {
+            return;
+        }
+        try {
+            IdempotencyRecord record = new IdempotencyRecord();
+            record.setKey(key);
+            record.setFingerprint(fingerprint);
+            record.setStatusCode(response.getStatusCode().value());
+            record.setResponseBody(objectMapper.writeValueAsString(response.getBody()));
+            recordRepository.save(record);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Could not persist idempotency record {}, it stays in memory only", key, e);
+        }
+    }
+
+    private static ResponseEntity<?> fromRecord(IdempotencyRecord record) {
+        return ResponseEntity.status(record.getStatusCode())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(record.getResponseBody());
+    }
+
+    @Scheduled(fixedDelayString = "${vacation.idempotency.purge-interval-ms:600000}")
+    public void purgeExpiredRecords() {
+        if (recordRepository != null) {
+            recordRepository.deleteExpired(LocalDateTime.now().minus(ttl));
+        }
+    }
+
+    private String fingerprint(Object payload) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(payload);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException e) {
+            return Integer.toHexString(String.valueOf(payload).hashCode());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+        private volatile String fingerprint; // replaced by the stored one before a restored entry completes
+        private final long createdAt;
+        private final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>();
+
+        private Entry(String fingerprint, long createdAt) {
+            this.fingerprint = fingerprint;
+            this.createdAt = createdAt;
+        }
+
+        boolean isExpired(long now, long ttlMillis) {
+            return response.isDone() && now - createdAt > ttlMillis;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.eddie.vacation.service;
+
+import com.eddie.vacation.event.VacationRequestChangedEvent;
+import com.eddie.vacation.event.VacationRequestEscalatedEvent;
+import com.eddie.vacation.model.Employee;
+import com.eddie.vacation.model.VacationRequest;
+import com.eddie.vacation.repository.VacationRequestRepository;
+import com.eddie.vacation.tenant.TenantContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SLA for pending requests: each one gets a deadline in a hashed timing wheel when it is
+ * created and loses it when a manager resolves it, so nothing scans the table to find stale
+ * requests. Past the deadline the request is escalated to the manager's manager
+ * ({@link VacationRequestEscalatedEvent}); with auto-reject configured it is rejected later on.
+ * Timers live in memory and are rebuilt from the pending requests at startup, so an escalation
+ * that fired just before a restart may fire again. Due timers re-read the request, which makes
+ * timers of requests removed in bulk (offboarding) harmless. One wheel serves every tenant;
+ * startup and due timers work as the root tenant.
+ */
+@Component
+@Order(0) // arms the SLA timers before StartupWarmup runs
+public class PendingRequestEscalator implements ApplicationRunner, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(PendingRequestEscalator.class);
+
+    enum Stage { ESCALATE, AUTO_REJECT }
+
+    record Deadline(Long requestId, Stage stage) {
+    }
+
+    private final VacationRequestRepository requestRepository;
+    private final VacationService vacationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration escalateAfter;
+    private final Duration autoRejectAfter; // zero disables
+    private final HashedTimingWheel<Deadline> wheel;
+    private final Map<Long, HashedTimingWheel.Timer<Deadline>> timers = new HashMap<>(); // guarded by this
+
+    private final AtomicLong escalated = new AtomicLong();
+    private final AtomicLong autoRejected = new AtomicLong();
+
+    @Autowired
+    public PendingRequestEscalator(VacationRequestRepository requestRepository,
+            VacationService vacationService,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${vacation.sla.escalate-after:7d}") Duration escalateAfter,
+            @Value("${vacation.sla.auto-reject-after:0d}") Duration autoRejectAfter,
+            @Value("${vacation.sla.tick:1m}") Duration tick,
+            @Value("${vacation.sla.wheel-size:4096}") int wheelSize) {
+        if (escalateAfter.isNegative() || escalateAfter.isZero() || autoRejectAfter.isNegative()
+                || (!autoRejectAfter.isZero() && autoRejectAfter.compareTo(escalateAfter) <= 0)) {
+            throw new IllegalArgumentException("SLA needs escalate-after > 0 and auto-reject-after 0 or later than that");
+        }
+        this.requestRepository = requestRepository;
+        this.vacationService = vacationService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.escalateAfter = escalateAfter;
+        this.autoRejectAfter = autoRejectAfter;
+        this.wheel = new HashedTimingWheel<>(tick.toMillis(), wheelSize, System.currentTimeMillis());
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<VacationRequestRepository.PendingSince> pending;
+        try (TenantContext.Scope root = TenantContext.enterRoot()) { // deadlines of every tenant
+            pending = requestRepository.findPendingSince();
+        }
+        for (VacationRequestRepository.PendingSince request : pending) {
+            schedule(request.getId(), Stage.ESCALATE, toMillis(request.getRequestCreatedAt()) + escalateAfter.toMillis());
+        }
+        log.info("Scheduled SLA deadlines for {} pending vacation requests", pending.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestChanged(VacationRequestChangedEvent event) {
+        if (event.previousStatus() == null && "pending".equals(event.status())) {
+            schedule(event.requestId(), Stage.ESCALATE, System.currentTimeMillis() + escalateAfter.toMillis());
+        } else if ("pending".equals(event.previousStatus())) {
+            cancel(event.requestId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${vacation.sla.tick:1m}")
+    public void tick() {
+        try (TenantContext.Scope root = TenantContext.enterRoot()) {
+            advanceTo(System.currentTimeMillis());
+        }
+    }
+
+    // handles everything due up to the given time, tests call this with their own clock
+    void advanceTo(long nowMillis) {
+        List<Deadline> due;
+        synchronized (this) {
+            due = wheel.advanceTo(nowMillis);
+            due.forEach(deadline -> timers.remove(deadline.requestId()));
+        }
+        for (Deadline deadline : due) {
+            try {
+                if (deadline.stage() == Stage.ESCALATE) {
+                    transactionTemplate.executeWithoutResult(status -> escalate(deadline.requestId()));
+                } else if (vacationService.expirePendingRequest(deadline.requestId())) {
+                    autoRejected.incrementAndGet();
+                    log.info("Auto-rejected vacation request {} after {} pending", deadline.requestId(), autoRejectAfter);
+                }
+            } catch (RuntimeException e) {
+                log.warn("SLA action {} for vacation request {} failed", deadline.stage(), deadline.requestId(), e);
+            }
+        }
+    }
+
+    private void escalate(Long requestId) {
+        VacationRequest request = requestRepository.findById(requestId).orElse(null);
+        if (request == null || !"pending".equals(request.getStatus())) {
+            return; // resolved or removed since the deadline was set
+        }
+        Employee author = request.getAuthor();
+        Employee manager = author.getReportsTo();
+        Employee escalateTo = manager == null ? null : manager.getReportsTo();
+        eventPublisher.publishEvent(new VacationRequestEscalatedEvent(
+                requestId,
+                author.getId(),
+                manager == null ? null : manager.getId(),
+                escalateTo == null ? null : escalateTo.getId(),
+                request.getRequestCreatedAt()));
+        escalated.incrementAndGet();
+        log.warn("Vacation request {} of employee {} pending since {}, escalated to {}",
+                requestId, author.getId(), request.getRequestCreatedAt(),
+                manager == null ? "no one, it is in every manager's queue"
+                        : escalateTo == null ? "no one above the manager" : "employee " + escalateTo.getId());
+
+        if (!autoRejectAfter.isZero()) {
+            schedule(requestId, Stage.AUTO_REJECT, toMillis(request.getRequestCreatedAt()) + autoRejectAfter.toMillis());
+        }
+    }
+
+    private synchronized void schedule(Long requestId, Stage stage, long deadlineMillis) {
+        HashedTimingWheel.Timer<Deadline> previous = timers.put(requestId,
+                wheel.schedule(new Deadline(requestId, stage), deadlineMillis));
+        if (previous != null) {
+            wheel.cancel(previous); // startup load and a creation event can both register the same request
+        }
+    }
+
+    private synchronized void cancel(Long requestId) {
+        HashedTimingWheel.Timer<Deadline> timer = timers.remove(requestId);
+        if (timer != null) {
+            wheel.cancel(timer);
+        }
+    }
+
+    public int getOutstandingCount() {
+        return wheel.size();
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("vacation.sla.timers", this, PendingRequestEscalator::getOutstandingCount).register(registry);
+        FunctionCounter.builder("vacation.sla.actions", escalated, AtomicLong::get)
+                .tag("action", "escalated").register(registry);
+        FunctionCounter.builder("vacation.sla.actions", autoRejected, AtomicLong::get)
+                .tag("action", "auto-rejected").register(registry);
+    }
+}
@@ -0,0 +1,148 @@
+package com.eddie.vacation.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Receives every JDBC statement from TracingDataSource with its duration and row count.
+ * Statements are tagged with the endpoint the current thread is serving (set by the
+ * request interceptor, "background" otherwise). Statements over slow-threshold-ms are
+ * logged at WARN, all of them at DEBUG on the "vacation.sql" logger, and the per-request
+ * statement count is checked against request-budget. Tests use {@link #count(Runnable)}
+ * to pin query counts and catch N+1 regressions.
+ */
+@Component
+public class QueryTracer implements MeterBinder {
+
+    public static final String BACKGROUND = "background";
+
+    private static final Logger log = LoggerFactory.getLogger("vacation.sql");
+
+    private final ThreadLocal<Trace> current = new ThreadLocal<>();
+    private final long slowThresholdNanos;
+    private final int requestBudget;
+    private volatile MeterRegistry registry; // null until metrics are bound
+    private volatile Counter slowStatements;
+
+    @Autowired
+    public QueryTracer(@Value("${vacation.sql.slow-threshold-ms:200}") long slowThresholdMillis,
+            @Value("${vacation.sql.request-budget:0}") int requestBudget) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.requestBudget = requestBudget;
+    }
+
+    /**
+     * Starts tagging statements on this thread with {@code endpoint} until {@link #end()}.
+     */
+    public void begin(String endpoint) {
+        current.set(new Trace(endpoint, current.get()));
+    }
+
+    /**
+     * Ends the innermost trace on this thread and checks it against the request budget.
+     *
+     * @return statements executed while it was open
+     */
+    public int end() {
+        Trace trace = current.get();
+        if (trace == null) {
+            return 0;
+        }
+        if (trace.parent == null) {
+            current.remove();
+        } else {
+            current.set(trace.parent);
+        }
+        if (requestBudget > 0 && trace.statements > requestBudget) {
+            log.warn("query budget exceeded endpoint=\"{}\" statements={} budget={} totalMs={}",
+                    trace.endpoint, trace.statements, requestBudget, millis(trace.nanos));
+        } else if (log.isDebugEnabled()) {
+            log.debug("request endpoint=\"{}\" statements={} totalMs={}",
+                    trace.endpoint, trace.statements, millis(trace.nanos));
+        }
+        return trace.statements;
+    }
+
+    /**
+     * Runs {@code work} and returns the number of statements it executed on this thread.
+     * Nothing is logged for the scope itself; statements still count towards enclosing traces.
+     */
+    public int count(Runnable work) {
+        Trace outer = current.get();
+        Trace scope = new Trace(outer == null ? BACKGROUND : outer.endpoint, outer);
+        current.set(scope);
+        try {
+            work.run();
+        } finally {
+            if (outer == null) {
+                current.remove();
+            } else {
+                current.set(outer);
+            }
+        }
+        return scope.statements;
+    }
+
+    /**
+     * @param rows rows returned or affected, -1 if unknown
+     */
+    public void record(String sql, long nanos, long rows) {
+        Trace trace = current.get();
+        String endpoint = trace == null ? BACKGROUND : trace.endpoint;
+        for (Trace t = trace; t != null; t = t.parent) {
+            t.statements++;
+            t.nanos += nanos;
+        }
+
+        MeterRegistry meters = registry;
+        if (meters != null) {
+            Timer.builder("vacation.sql.statements").tag("endpoint", endpoint).register(meters)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        }
+        if (nanos >= slowThresholdNanos) {
+            if (slowStatements != null) {
+                slowStatements.increment();
+            }
+            log.warn("slow statement endpoint=\"{}\" ms={} rows={} sql=\"{}\"", endpoint, millis(nanos), rows,
+                    oneLine(sql));
+        } else if (log.isDebugEnabled()) {
+            log.debug("statement endpoint=\"{}\" ms={} rows={} sql=\"{}\"", endpoint, millis(nanos), rows,
+                    oneLine(sql));
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.3f", nanos / 1e6);
+    }
+
+    private static String oneLine(String sql) {
+        return sql == null ? "" : sql.replaceAll("\\s+", " ").trim();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.slowStatements = Counter.builder("vacation.sql.slow").register(registry);
+        this.registry = registry;
+    }
+
+    private static final class Trace {
+        private final String endpoint;
+        private final Trace parent;
+        private int statements;
+        private long nanos;
+
+        private Trace(String endpoint, Trace parent) {
+            this.endpoint = endpoint;
+            this.parent = parent;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.eddie.vacation.service;
+
+import com.eddie.vacation.event.EmployeeChangedEvent;
+import com.eddie.vacation.event.EmployeesOffboardedEvent;
+import com.eddie.vacation.event.VacationRequestChangedEvent;
+import com.eddie.vacation.event.VacationRequestsArchivedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import com.eddie.vacation.tenant.TenantContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for the hot read queries: concurrent callers with the same key share one
+ * database query and its result. A finished result may be reused for a short freshness
+ * window; any committed write bumps the generation, so nobody joins or reuses a query
+ * that started before the change. Results are shared between threads and must be fully
+ * loaded and treated as read-only. Keys are per tenant: callers of different tenants never
+ * share a query.
+ */
+@Component
+public class ReadCoalescer implements MeterBinder {
+
+    private final Map<String, Flight<?>> flights = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final long freshnessNanos;
+
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong joined = new AtomicLong(); // waited on a query already in flight
+    private final AtomicLong reused = new AtomicLong(); // served from a finished query inside the window
+
+    @Autowired
+    public ReadCoalescer(@Value("${vacation.coalescing.freshness-ms:0}") long freshnessMillis) {
+        this.freshnessNanos = TimeUnit.MILLISECONDS.toNanos(freshnessMillis);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T coalesce(String key, Supplier<T> query) {
+        String tenantKey = TenantContext.current() + "|" + key;
+        long gen = generation.get();
+        Flight<T> mine = new Flight<>(gen);
+        while (true) {
+            Flight<T> current = (Flight<T>) flights.putIfAbsent(tenantKey, mine);
+            if (current == null) {
+                return run(tenantKey, mine, query);
+            }
+            if (current.generation == gen && !current.isStale(System.nanoTime(), freshnessNanos)) {
+                (current.result.isDone() ? reused : joined).incrementAndGet();
+                return await(current);
+            }
+            flights.remove(tenantKey, current); // older data or past the window, replace it
+        }
+    }
+
+    private <T> T run(String key, Flight<T> flight, Supplier<T> query) {
+        executed.incrementAndGet();
+        try {
+            T value = query.get();
+            flight.completedAt = System.nanoTime();
+            flight.result.complete(value);
+            if (freshnessNanos == 0 || generation.get() != flight.generation) {
+                flights.remove(key, flight);
+            }
+            return value;
+        } catch (RuntimeException e) {
+            flights.remove(key, flight); // failures are shared with waiters but never reused
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static <T> T await(Flight<T> flight) {
+        try {
+            return flight.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a shared query", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestChanged(VacationRequestChangedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestsArchived(VacationRequestsArchivedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeesOffboarded(EmployeesOffboardedEvent event) {
+        invalidate();
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        flights.values().removeIf(flight -> flight.result.isDone());
+    }
+
+    public long getExecutedCount() {
+        return executed.get();
+    }
+
+    public long getCoalescedCount() {
+        return joined.get() + reused.get();
+    }
+
+    // share of reads that did not need their own query
+    public double getCoalescingRatio() {
+        long coalesced = getCoalescedCount();
+        long total = coalesced + executed.get();
+        return total == 0 ? 0.0 : (double) coalesced / total;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("vacation.coalescing.reads", executed, AtomicLong::get)
+                .tag("outcome", "executed").register(registry);
+        FunctionCounter.builder("vacation.coalescing.reads", joined, AtomicLong::get)
+                .tag("outcome", "joined").register(registry);
+        FunctionCounter.builder("vacation.coalescing.reads", reused, AtomicLong::get)
+                .tag("outcome", "reused").register(registry);
+        Gauge.builder("vacation.coalescing.ratio", this, ReadCoalescer::getCoalescingRatio).register(registry);
+    }
+
+    private static final class Flight<T> {
+        private final long generation;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private volatile long completedAt;
+
+        private Flight(long generation) {
+            this.generation = generation;
+        }
+
+        boolean isStale(long now, long freshnessNanos) {
+            return result.isDone() && now - completedAt > freshnessNanos;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.eddie.vacation.service;
+
+import com.eddie.vacation.event.EmployeeChangedEvent;
+import com.eddie.vacation.event.EmployeesOffboardedEvent;
+import com.eddie.vacation.event.VacationRequestChangedEvent;
+import com.eddie.vacation.event.VacationRequestsArchivedEvent;
+import com.eddie.vacation.tenant.TenantContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Change counters backing the ETag/Last-Modified headers of the read endpoints.
+ * Counters are bumped after the writing transaction commits, so a response is never
+ * tagged with a version newer than the data it was built from. Each tenant has its own
+ * counters and the tenant is part of every tag, so one tenant's cached copy never
+ * revalidates against another's data.
+ */
+@Component
+public class ResourceVersions {
+
+    // ETags handed out by a previous run must never match after a restart
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final long startedAt = System.currentTimeMillis();
+
+    private final Stamp initial = new Stamp(0, startedAt, 0);
+    private final Map<String, TenantVersions> tenants = new ConcurrentHashMap<>();
+
+    /** Version of the whole vacation_requests table (manager views). */
+    public Stamp requestTable() {
+        return versions().requestTable.get();
+    }
+
+    /** Version of one employee's requests and balance. */
+    public Stamp employee(Long employeeId) {
+        return versions().employees.getOrDefault(employeeId, initial);
+    }
+
+    // weak tags: Tomcat never gzips a response carrying a strong ETag, and the same
+    // version may go out gzip-encoded or not
+    public String etag(String resource, Stamp stamp) {
+        return "W/\"" + TenantContext.current() + "-" + resource + "-" + epoch + "-" + stamp.version() + "\"";
+    }
+
+    // JSON, Smile and CBOR renderings of the same version are different representations
+    public String etag(String resource, Stamp stamp, WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept != null && accept.contains("smile")) {
+            return etag(resource + "-smile", stamp);
+        }
+        if (accept != null && accept.contains("cbor")) {
+            return etag(resource + "-cbor", stamp);
+        }
+        return etag(resource, stamp);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestChanged(VacationRequestChangedEvent event) {
+        bumpRequestTable();
+        bumpEmployee(event.authorId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestsArchived(VacationRequestsArchivedEvent event) {
+        bumpRequestTable();
+        event.authorIds().forEach(this::bumpEmployee);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        bumpRequestTable(); // employees are embedded in every request list
+        bumpEmployee(event.employeeId());
+        event.resolvedForIds().forEach(this::bumpEmployee);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeesOffboarded(EmployeesOffboardedEvent event) {
+        bumpRequestTable();
+        event.employeeIds().forEach(this::bumpEmployee);
+        event.resolvedForIds().forEach(this::bumpEmployee); // their lists embedded a removed resolver
+    }
+
+    public void bumpRequestTable() {
+        long now = System.currentTimeMillis();
+        affected().forEach(v -> v.requestTable.updateAndGet(s -> s.next(now)));
+    }
+
+    public void bumpEmployee(Long employeeId) {
+        long now = System.currentTimeMillis();
+        affected().forEach(v -> v.employees.compute(employeeId, (id, s) -> (s == null ? initial : s).next(now)));
+    }
+
+    private TenantVersions versions() {
+        return tenants.computeIfAbsent(TenantContext.current(), t -> new TenantVersions(initial));
+    }
+
+    // jobs running as root change rows of any tenant; a tenant not seen yet has handed out no tags
+    private Collection<TenantVersions> affected() {
+        return TenantContext.isRoot() ? tenants.values() : List.of(versions());
+    }
+
+    /**
+     * True if the client's cached copy is current: If-None-Match wins, If-Modified-Since
+     * is only consulted when no entity tag was sent.
+     */
+    public static boolean isNotModified(WebRequest request, String etag, Stamp stamp) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            String current = opaqueTag(etag);
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = opaqueTag(candidate.trim()); // weak comparison is fine for GET
+                if (tag.equals("*") || tag.equals(current)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        String ifModifiedSince = request.getHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        if (ifModifiedSince != null) {
+            try {
+                Instant since = ZonedDateTime.parse(ifModifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+                long modified = stamp.lastModified() / 1000; // HTTP dates have second precision
+                // a copy from the stamp's own second may predate a later write in that second
+                return modified < since.getEpochSecond()
+                        || (modified == since.getEpochSecond() && stamp.version() == stamp.firstVersionInSecond());
+            } catch (DateTimeParseException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static String opaqueTag(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static final class TenantVersions {
+
+        final AtomicReference<Stamp> requestTable;
+        final Map<Long, Stamp> employees = new ConcurrentHashMap<>();
+
+        TenantVersions(Stamp initial) {
+            requestTable = new AtomicReference<>(initial);
+        }
+    }
+
+    /**
+     * @param firstVersionInSecond the first version bumped in the same second as this one,
+     *                             equal to {@code version} when it is the only one
+     */
+    public record Stamp(long version, long lastModified, long firstVersionInSecond) {
+
+        Stamp next(long now) {
+            long next = version + 1;
+            return new Stamp(next, now, now / 1000 == lastModified / 1000 ? firstVersionInSecond : next);
+        }
+    }
+}
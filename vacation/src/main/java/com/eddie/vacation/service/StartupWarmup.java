@@ -0,0 +1,149 @@
+package com.eddie.vacation.service;
+
+import com.eddie.vacation.model.Employee;
+import com.eddie.vacation.model.VacationRequest;
+import com.eddie.vacation.repository.EmployeeRepository;
+import com.eddie.vacation.repository.VacationRequestRepository;
+import com.eddie.vacation.tenant.TenantContext;
+import com.eddie.vacation.tenant.TenantRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms the process up before it reports ready: Spring Boot only switches the readiness probe
+ * to accepting traffic once every runner is done, so a rolling deploy keeps sending requests to
+ * the old instance meanwhile. Per tenant, the pending requests and a sample of managers and
+ * requesting employees are loaded into the second-level cache, then the queries behind the
+ * manager dashboard, remaining days and the overlap checks are repeated for that sample, which
+ * prepares their statements and gets the paths JIT-compiled. Only the sample is touched, so
+ * warm-up time does not grow with the employee table; max-duration bounds it regardless.
+ * The reported query count is the SQL statements actually executed, cache hits are free.
+ * Failures are logged and never stop startup.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE) // after the runners that load the absence index and the SLA timers
+public class StartupWarmup implements ApplicationRunner, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private final VacationService vacationService;
+    private final EmployeeRepository employeeRepository;
+    private final VacationRequestRepository requestRepository;
+    private final TenantRegistry tenantRegistry;
+    private final QueryTracer queryTracer;
+    private final boolean enabled;
+    private final int iterations;
+    private final int sampleSize;
+    private final Duration maxDuration;
+
+    private volatile long durationMillis;
+    private volatile int queries;
+
+    @Autowired
+    public StartupWarmup(VacationService vacationService,
+            EmployeeRepository employeeRepository,
+            VacationRequestRepository requestRepository,
+            TenantRegistry tenantRegistry,
+            QueryTracer queryTracer,
+            @Value("${vacation.warmup.enabled:true}") boolean enabled,
+            @Value("${vacation.warmup.iterations:20}") int iterations,
+            @Value("${vacation.warmup.sample-size:50}") int sampleSize,
+            @Value("${vacation.warmup.max-duration:30s}") Duration maxDuration) {
+        if (iterations < 1 || sampleSize < 1 || maxDuration.isNegative()) {
+            throw new IllegalArgumentException("Warm-up needs iterations and sample size of at least 1");
+        }
+        this.vacationService = vacationService;
+        this.employeeRepository = employeeRepository;
+        this.requestRepository = requestRepository;
+        this.tenantRegistry = tenantRegistry;
+        this.queryTracer = queryTracer;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.sampleSize = sampleSize;
+        this.maxDuration = maxDuration;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+        int count = 0;
+        for (String tenant : tenantRegistry.getTenants()) {
+            try (TenantContext.Scope scope = TenantContext.enter(tenant)) {
+                count += queryTracer.count(() -> warm(deadline));
+            } catch (RuntimeException e) {
+                log.warn("Warm-up for tenant {} failed, continuing startup", tenant, e);
+            }
+        }
+        durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        queries = count;
+        log.info("Warm-up ran {} queries for {} tenant(s) in {} ms", count, tenantRegistry.getTenants().size(),
+                durationMillis);
+    }
+
+    private void warm(long deadline) {
+        List<VacationRequest> pending = vacationService.getPendingRequestsForManager(); // also caches their authors
+        List<Employee> managers = employeeRepository.findByIsManager(true, Limit.of(sampleSize));
+        Set<Long> employeeIds = new LinkedHashSet<>();
+        for (VacationRequest request : pending) {
+            if (employeeIds.size() == sampleSize) {
+                break;
+            }
+            employeeIds.add(request.getAuthor().getId());
+        }
+        List<Long> managerIds = new ArrayList<>(managers.size());
+        managers.forEach(manager -> managerIds.add(manager.getId()));
+
+        LocalDate from = LocalDate.now();
+        LocalDate to = from.plusDays(30);
+        for (int i = 0; i < iterations && System.nanoTime() < deadline; i++) {
+            for (Long managerId : managerIds) {
+                requestRepository.findPendingRequestsForManager(managerId);
+                employeeRepository.findById(managerId);
+            }
+            for (Long employeeId : employeeIds) {
+                employeeRepository.findById(employeeId);
+                requestRepository.findEmployeeOverlappingRequests(employeeId, from, to);
+            }
+            requestRepository.findOverlappingApprovedRequests(from, to);
+        }
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public int getQueries() {
+        return queries;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        TimeGauge.builder("vacation.warmup.duration", this, TimeUnit.MILLISECONDS, StartupWarmup::getDurationMillis)
+                .register(registry);
+        Gauge.builder("vacation.warmup.queries", this, StartupWarmup::getQueries).register(registry);
+    }
+}
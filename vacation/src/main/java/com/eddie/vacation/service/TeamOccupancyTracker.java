@@ -0,0 +1,166 @@
+package com.eddie.vacation.service;
+
+import com.eddie.vacation.event.EmployeeChangedEvent;
+import com.eddie.vacation.event.EmployeesOffboardedEvent;
+import com.eddie.vacation.exception.InsufficientCoverageException;
+import com.eddie.vacation.model.VacationRequest;
+import com.eddie.vacation.repository.VacationRequestRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory count of approved absences per team per day. A team is loaded from the
+ * database the first time it is needed and then kept current by every approval, so
+ * the coverage check only touches the days of the request being approved. Days before
+ * today are dropped as bookings come in, so a team's map only covers the future.
+ */
+@Component
+public class TeamOccupancyTracker {
+
+    private final VacationRequestRepository requestRepository;
+    private final WorkingDayCalendar workingDayCalendar;
+    private final Map<Long, TeamDays> teams = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TeamOccupancyTracker(VacationRequestRepository requestRepository,
+            WorkingDayCalendar workingDayCalendar) {
+        this.requestRepository = requestRepository;
+        this.workingDayCalendar = workingDayCalendar;
+    }
+
+    /**
+     * Books the absence if no working day in the range would exceed {@code maxAbsent}.
+     * The booking is undone automatically if the surrounding transaction rolls back.
+     */
+    public void reserve(Long departmentId, String region, LocalDate startDate, LocalDate endDate, int maxAbsent) {
+        TeamDays team = teams.computeIfAbsent(departmentId, this::loadTeam);
+        synchronized (team) { // check and book atomically, approvals in other teams are not blocked
+            team.trimBefore(LocalDate.now().toEpochDay());
+            for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+                if (workingDayCalendar.isWorkingDay(region, day) && team.absentOn(day) >= maxAbsent) {
+                    throw new InsufficientCoverageException(
+                            "Approving this request would leave the team below minimum staffing on " + day);
+                }
+            }
+            team.add(startDate, endDate, 1);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        adjust(departmentId, startDate, endDate, -1);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Frees a previously approved absence once the surrounding transaction commits.
+     */
+    public void release(Long departmentId, LocalDate startDate, LocalDate endDate) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    adjust(departmentId, startDate, endDate, -1);
+                }
+            });
+        } else {
+            adjust(departmentId, startDate, endDate, -1);
+        }
+    }
+
+    public int absentOn(Long departmentId, LocalDate day) {
+        TeamDays team = teams.get(departmentId);
+        if (team == null) {
+            return 0;
+        }
+        synchronized (team) {
+            return team.absentOn(day);
+        }
+    }
+
+    // drop a team so it is reloaded on next use, e.g. after its members change
+    public void evict(Long departmentId) {
+        teams.remove(departmentId);
+    }
+
+    public void evictAll() {
+        teams.clear();
+    }
+
+    // an employee moving teams takes their approved absences from one team to the other
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (Objects.equals(event.previousDepartmentId(), event.departmentId())) {
+            return;
+        }
+        if (event.previousDepartmentId() != null) {
+            evict(event.previousDepartmentId());
+        }
+        if (event.departmentId() != null) {
+            evict(event.departmentId());
+        }
+    }
+
+    // offboarded members take their approved absences with them
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeesOffboarded(EmployeesOffboardedEvent event) {
+        event.departmentIds().forEach(this::evict);
+    }
+
+    private void adjust(Long departmentId, LocalDate startDate, LocalDate endDate, int delta) {
+        TeamDays team = teams.get(departmentId);
+        if (team == null) {
+            return; // not loaded, the next load reads the committed state
+        }
+        synchronized (team) {
+            team.add(startDate, endDate, delta);
+        }
+    }
+
+    private TeamDays loadTeam(Long departmentId) {
+        LocalDate today = LocalDate.now();
+        TeamDays team = new TeamDays();
+        for (VacationRequest request : requestRepository.findApprovedForDepartmentFrom(departmentId, today)) {
+            LocalDate start = request.getVacationStartDate().isBefore(today) ? today : request.getVacationStartDate();
+            team.add(start, request.getVacationEndDate(), 1);
+        }
+        return team;
+    }
+
+    private static final class TeamDays {
+        private final Map<Long, Integer> absentByEpochDay = new HashMap<>();
+        private long trimmedBefore = Long.MIN_VALUE;
+
+        int absentOn(LocalDate day) {
+            return absentByEpochDay.getOrDefault(day.toEpochDay(), 0);
+        }
+
+        // once per day at most; past days can no longer be booked against and are not counted again
+        void trimBefore(long epochDay) {
+            if (epochDay > trimmedBefore) {
+                absentByEpochDay.keySet().removeIf(day -> day < epochDay);
+                trimmedBefore = epochDay;
+            }
+        }
+
+        void add(LocalDate startDate, LocalDate endDate, int delta) {
+            for (long day = Math.max(startDate.toEpochDay(), trimmedBefore); day <= endDate.toEpochDay(); day++) {
+                absentByEpochDay.merge(day, delta, (a, b) -> a + b == 0 ? null : a + b);
+            }
+        }
+    }
+}
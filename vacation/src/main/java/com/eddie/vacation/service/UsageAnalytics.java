@@ -0,0 +1,291 @@
+package com.eddie.vacation.service;
+
+import com.eddie.vacation.dto.UsageReportDto;
+import com.eddie.vacation.event.EmployeeChangedEvent;
+import com.eddie.vacation.event.EmployeesOffboardedEvent;
+import com.eddie.vacation.event.VacationRequestChangedEvent;
+import com.eddie.vacation.repository.ArchivedVacationRequestRepository;
+import com.eddie.vacation.repository.VacationRequestRepository;
+import com.eddie.vacation.repository.VacationRequestRepository.DecidedRequest;
+import com.eddie.vacation.repository.VacationRequestRepository.StatusCount;
+import com.eddie.vacation.tenant.TenantContext;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Per-employee and per-manager usage statistics for a year, over live and archived requests.
+ * Counts per status come from GROUP BY queries; working days taken and time to decision need
+ * per-row work, so decided requests are read in keyset pages and each page is reduced on a
+ * fork-join pool while the next one loads. Reports are cached per tenant and year until a
+ * request of that year changes (employee changes drop all of them).
+ */
+@Component
+public class UsageAnalytics {
+
+    private static final int LEAF_SIZE = 1024; // rows a fork-join leaf reduces sequentially
+
+    private final VacationRequestRepository requestRepository;
+    private final ArchivedVacationRequestRepository archiveRepository;
+    private final WorkingDayCalendar workingDayCalendar;
+    private final ReadCoalescer readCoalescer;
+    private final int pageSize;
+    private final ForkJoinPool pool;
+
+    private final Map<ReportKey, UsageReportDto> reports = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public UsageAnalytics(VacationRequestRepository requestRepository,
+            ArchivedVacationRequestRepository archiveRepository,
+            WorkingDayCalendar workingDayCalendar,
+            ReadCoalescer readCoalescer,
+            @Value("${vacation.analytics.page-size:10000}") int pageSize,
+            @Value("${vacation.analytics.parallelism:0}") int parallelism) {
+        if (pageSize < 1 || parallelism < 0) {
+            throw new IllegalArgumentException("Analytics page size must be positive");
+        }
+        this.requestRepository = requestRepository;
+        this.archiveRepository = archiveRepository;
+        this.workingDayCalendar = workingDayCalendar;
+        this.readCoalescer = readCoalescer;
+        this.pageSize = pageSize;
+        this.pool = new ForkJoinPool(parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism);
+    }
+
+    public UsageReportDto getYearReport(int year) {
+        if (year < 1970 || year > 9999) {
+            throw new IllegalArgumentException("Year must be between 1970 and 9999");
+        }
+        ReportKey key = new ReportKey(TenantContext.current(), year);
+        UsageReportDto cached = reports.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long gen = generation.get();
+        UsageReportDto report = readCoalescer.coalesce("usage-" + year,
+                () -> buildReport(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31)));
+        reports.put(key, report);
+        if (generation.get() != gen) {
+            reports.remove(key, report); // something changed while it was computed
+        }
+        return report;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestChanged(VacationRequestChangedEvent event) {
+        generation.incrementAndGet();
+        int year = event.vacationStartDate().getYear();
+        reports.keySet().removeIf(key -> key.year() == year); // events do not carry the tenant
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        invalidate(); // names and reporting lines
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeesOffboarded(EmployeesOffboardedEvent event) {
+        invalidate();
+    }
+
+    // archival moves rows between tables the report reads both of, nothing to drop for it
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        reports.clear();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    UsageReportDto buildReport(LocalDate from, LocalDate to) {
+        Map<Long, UsageReportDto.EmployeeUsage> employees = new TreeMap<>();
+        for (StatusCount count : concat(requestRepository.countByAuthorAndStatus(from, to),
+                archiveRepository.countByAuthorAndStatus(from, to))) {
+            UsageReportDto.EmployeeUsage usage = employees.computeIfAbsent(count.getEmployeeId(), id -> {
+                UsageReportDto.EmployeeUsage u = new UsageReportDto.EmployeeUsage();
+                u.setEmployeeId(id);
+                return u;
+            });
+            if (usage.getName() == null) {
+                usage.setName(count.getName());
+            }
+            long n = count.getRequests();
+            usage.setRequests(usage.getRequests() + n);
+            switch (count.getStatus()) {
+                case "approved" -> usage.setApproved(usage.getApproved() + n);
+                case "rejected" -> usage.setRejected(usage.getRejected() + n);
+                default -> usage.setPending(usage.getPending() + n);
+            }
+        }
+
+        Map<Long, UsageReportDto.ManagerUsage> managers = new TreeMap<>();
+        for (StatusCount count : concat(requestRepository.countByResolverAndStatus(from, to),
+                archiveRepository.countByResolverAndStatus(from, to))) {
+            UsageReportDto.ManagerUsage usage = managers.computeIfAbsent(count.getEmployeeId(), id -> {
+                UsageReportDto.ManagerUsage u = new UsageReportDto.ManagerUsage();
+                u.setManagerId(id);
+                return u;
+            });
+            if (usage.getName() == null) {
+                usage.setName(count.getName());
+            }
+            long n = count.getRequests();
+            usage.setDecisions(usage.getDecisions() + n);
+            if ("approved".equals(count.getStatus())) {
+                usage.setApproved(usage.getApproved() + n);
+            } else if ("rejected".equals(count.getStatus())) {
+                usage.setRejected(usage.getRejected() + n);
+            }
+        }
+
+        DecisionTotals totals = new DecisionTotals();
+        Deque<ForkJoinTask<DecisionTotals>> inFlight = new ArrayDeque<>();
+        reducePages(afterId -> requestRepository.findDecidedAfter(from, to, afterId, Limit.of(pageSize)), inFlight, totals);
+        reducePages(afterId -> archiveRepository.findDecidedAfter(from, to, afterId, Limit.of(pageSize)), inFlight, totals);
+        while (!inFlight.isEmpty()) {
+            totals.merge(inFlight.poll().join());
+        }
+
+        for (UsageReportDto.EmployeeUsage usage : employees.values()) {
+            usage.setDaysTaken(totals.daysTaken.getOrDefault(usage.getEmployeeId(), 0L));
+            usage.setApprovalRate(rate(usage.getApproved(), usage.getRejected()));
+            usage.setAverageHoursToDecision(totals.waited.getOrDefault(usage.getEmployeeId(), Timing.NONE).averageHours());
+        }
+        for (UsageReportDto.ManagerUsage usage : managers.values()) {
+            usage.setApprovalRate(rate(usage.getApproved(), usage.getRejected()));
+            usage.setAverageHoursToDecision(totals.decided.getOrDefault(usage.getManagerId(), Timing.NONE).averageHours());
+        }
+
+        UsageReportDto report = new UsageReportDto();
+        report.setFrom(from);
+        report.setTo(to);
+        report.setEmployees(new ArrayList<>(employees.values()));
+        report.setManagers(new ArrayList<>(managers.values()));
+        return report;
+    }
+
+    // reads pages on this thread and hands each to the pool; at most one page per worker waits, bounding memory
+    private void reducePages(Function<Long, List<DecidedRequest>> page, Deque<ForkJoinTask<DecisionTotals>> inFlight,
+            DecisionTotals totals) {
+        long afterId = 0; // ids start at 1
+        while (true) {
+            List<DecidedRequest> rows = page.apply(afterId);
+            if (rows.isEmpty()) {
+                return;
+            }
+            inFlight.add(pool.submit(new Reduction(rows, 0, rows.size())));
+            while (inFlight.size() > pool.getParallelism()) {
+                totals.merge(inFlight.poll().join());
+            }
+            if (rows.size() < pageSize) {
+                return;
+            }
+            afterId = rows.get(rows.size() - 1).getId();
+        }
+    }
+
+    private static Double rate(long approved, long rejected) {
+        return approved + rejected == 0 ? null : (double) approved / (approved + rejected);
+    }
+
+    private static <T> List<T> concat(List<T> live, List<T> archived) {
+        List<T> all = new ArrayList<>(live.size() + archived.size());
+        all.addAll(live);
+        all.addAll(archived);
+        return all;
+    }
+
+    private final class Reduction extends RecursiveTask<DecisionTotals> {
+        private final List<DecidedRequest> rows;
+        private final int from;
+        private final int to;
+
+        private Reduction(List<DecidedRequest> rows, int from, int to) {
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected DecisionTotals compute() {
+            if (to - from <= LEAF_SIZE) {
+                DecisionTotals totals = new DecisionTotals();
+                for (int i = from; i < to; i++) {
+                    totals.add(rows.get(i), workingDayCalendar);
+                }
+                return totals;
+            }
+            int middle = (from + to) >>> 1;
+            Reduction left = new Reduction(rows, from, middle);
+            left.fork();
+            DecisionTotals right = new Reduction(rows, middle, to).compute();
+            right.merge(left.join());
+            return right;
+        }
+    }
+
+    static final class DecisionTotals {
+        private final Map<Long, Long> daysTaken = new HashMap<>();
+        private final Map<Long, Timing> waited = new HashMap<>(); // by author
+        private final Map<Long, Timing> decided = new HashMap<>(); // by resolving manager
+
+        void add(DecidedRequest request, WorkingDayCalendar calendar) {
+            if ("approved".equals(request.getStatus())) {
+                daysTaken.merge(request.getAuthorId(), (long) calendar.countWorkingDays(
+                        request.getRegion(), request.getVacationStartDate(), request.getVacationEndDate()), Long::sum);
+            }
+            if (request.getResolvedAt() == null) {
+                return; // decided before resolution times were recorded
+            }
+            long minutes = Math.max(0, Duration.between(request.getRequestCreatedAt(), request.getResolvedAt()).toMinutes());
+            waited.merge(request.getAuthorId(), new Timing(1, minutes), Timing::plus);
+            if (request.getResolvedById() != null) {
+                decided.merge(request.getResolvedById(), new Timing(1, minutes), Timing::plus);
+            }
+        }
+
+        void merge(DecisionTotals other) {
+            other.daysTaken.forEach((id, days) -> daysTaken.merge(id, days, Long::sum));
+            other.waited.forEach((id, timing) -> waited.merge(id, timing, Timing::plus));
+            other.decided.forEach((id, timing) -> decided.merge(id, timing, Timing::plus));
+        }
+    }
+
+    private record ReportKey(String tenant, int year) {
+    }
+
+    record Timing(long count, long minutes) {
+        static final Timing NONE = new Timing(0, 0);
+
+        Timing plus(Timing other) {
+            return new Timing(count + other.count, minutes + other.minutes);
+        }
+
+        Double averageHours() {
+            return count == 0 ? null : minutes / 60.0 / count;
+        }
+    }
+}
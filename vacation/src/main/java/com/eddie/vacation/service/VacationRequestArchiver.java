@@ -0,0 +1,102 @@
+package com.eddie.vacation.service;
+
+import com.eddie.vacation.event.VacationRequestsArchivedEvent;
+import com.eddie.vacation.repository.ArchivedVacationRequestRepository;
+import com.eddie.vacation.repository.VacationRequestRepository;
+import com.eddie.vacation.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves resolved requests that ended more than the retention period ago from
+ * vacation_requests into vacation_requests_archive, so the live table (and its indexes)
+ * only holds pending, current and recent requests. Each batch is copied and deleted in
+ * its own short transaction; history views read the archive explicitly.
+ */
+@Component
+public class VacationRequestArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(VacationRequestArchiver.class);
+
+    private final VacationRequestRepository requestRepository;
+    private final ArchivedVacationRequestRepository archiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int retentionMonths;
+    private final int batchSize;
+
+    @Autowired
+    public VacationRequestArchiver(VacationRequestRepository requestRepository,
+            ArchivedVacationRequestRepository archiveRepository,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${vacation.archive.retention-months:12}") int retentionMonths,
+            @Value("${vacation.archive.batch-size:500}") int batchSize) {
+        if (retentionMonths < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Archive retention and batch size must be positive");
+        }
+        this.requestRepository = requestRepository;
+        this.archiveRepository = archiveRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.retentionMonths = retentionMonths;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${vacation.archive.cron:0 30 2 * * *}")
+    public void archiveScheduled() {
+        int moved;
+        try (TenantContext.Scope root = TenantContext.enterRoot()) { // one pass over every tenant
+            moved = archiveEndedBefore(LocalDate.now().minusMonths(retentionMonths));
+        }
+        if (moved > 0) {
+            log.info("Archived {} resolved vacation requests", moved);
+        }
+    }
+
+    /**
+     * Archives every resolved request whose vacation ended before {@code cutoff}.
+     *
+     * @return number of requests moved
+     */
+    public int archiveEndedBefore(LocalDate cutoff) {
+        int total = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += moved;
+            if (moved < batchSize) {
+                return total;
+            }
+        }
+    }
+
+    private int archiveBatch(LocalDate cutoff) {
+        List<Long> ids = requestRepository.findArchivableIds(cutoff, Limit.of(batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        int copied = archiveRepository.copyFromRequests(ids, LocalDateTime.now());
+        int deleted = requestRepository.deleteByIds(ids);
+        if (copied != ids.size() || deleted != ids.size()) {
+            // rolls the batch back, nothing is lost or duplicated
+            throw new IllegalStateException("Archive batch mismatch: " + ids.size() + " selected, "
+                    + copied + " copied, " + deleted + " deleted");
+        }
+
+        eventPublisher.publishEvent(new VacationRequestsArchivedEvent(ids, archiveRepository.findAuthorIds(ids)));
+        return ids.size();
+    }
+}
@@ -0,0 +1,400 @@
+package com.eddie.vacation.service;
+
+import com.eddie.vacation.dto.SubmissionStatusDto;
+import com.eddie.vacation.dto.VacationRequestDto;
+import com.eddie.vacation.exception.EmployeeNotFoundException;
+import com.eddie.vacation.exception.InsufficientVacationDaysException;
+import com.eddie.vacation.exception.TooManyRequestsException;
+import com.eddie.vacation.model.Employee;
+import com.eddie.vacation.model.VacationRequest;
+import com.eddie.vacation.repository.EmployeeRepository;
+import com.eddie.vacation.repository.VacationRequestRepository;
+import com.eddie.vacation.tenant.TenantContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Optional asynchronous intake for new vacation requests (vacation.intake.async=true).
+ * Submissions go into a bounded queue and get a ticket back right away; one worker
+ * drains whatever has piled up (up to batch-size) and handles it in a single transaction:
+ * all authors locked with one query, overlaps checked against one query, accepted rows
+ * written with one multi-row insert. The rules and messages are those of
+ * VacationService.createRequest, applied in queue order, so a submission also conflicts
+ * with an earlier one in the same batch. If a batch fails as a whole, its submissions
+ * are retried one by one through createRequest so one bad entry cannot sink the rest.
+ * Submissions remember their tenant; a drained batch is split per tenant and each part
+ * runs under its own tenant.
+ */
+@Component
+public class VacationRequestIntake implements SmartLifecycle, MeterBinder {
+
+    public static final String QUEUED = "queued";
+    public static final String CREATED = "created";
+    public static final String REJECTED = "rejected";
+
+    private static final Logger log = LoggerFactory.getLogger(VacationRequestIntake.class);
+
+    private final VacationService vacationService;
+    private final EmployeeRepository employeeRepository;
+    private final VacationRequestRepository requestRepository;
+    private final EmployeeWriteLocks employeeLocks;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long ticketTtlNanos;
+
+    private final BlockingQueue<Submission> queue;
+    private final Map<String, Submission> submissions = new ConcurrentHashMap<>();
+    private final Queue<Submission> finished = new ConcurrentLinkedQueue<>(); // oldest first, for expiry
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    @Autowired
+    public VacationRequestIntake(VacationService vacationService,
+            EmployeeRepository employeeRepository,
+            VacationRequestRepository requestRepository,
+            EmployeeWriteLocks employeeLocks,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            @Value("${vacation.intake.async:false}") boolean enabled,
+            @Value("${vacation.intake.queue-capacity:10000}") int queueCapacity,
+            @Value("${vacation.intake.batch-size:200}") int batchSize,
+            @Value("${vacation.intake.ticket-ttl:1h}") Duration ticketTtl) {
+        if (queueCapacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Intake queue capacity and batch size must be positive");
+        }
+        this.vacationService = vacationService;
+        this.employeeRepository = employeeRepository;
+        this.requestRepository = requestRepository;
+        this.employeeLocks = employeeLocks;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.ticketTtlNanos = ticketTtl.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a new request. Date rules are checked right away, everything that needs the
+     * database happens in the worker.
+     *
+     * @throws TooManyRequestsException when the queue is full or the intake is shutting down
+     */
+    public SubmissionStatusDto submit(VacationRequestDto requestDto) {
+        requestDto.validateDates();
+        if (!running) {
+            throw new TooManyRequestsException("Request intake is not accepting submissions", 1);
+        }
+        Submission submission = new Submission(UUID.randomUUID().toString(), requestDto);
+        submissions.put(submission.ticketId, submission);
+        if (!queue.offer(submission)) {
+            submissions.remove(submission.ticketId);
+            throw new TooManyRequestsException("Request intake queue is full", 1);
+        }
+        return submission.toDto();
+    }
+
+    public Optional<SubmissionStatusDto> findSubmission(String ticketId) {
+        return Optional.ofNullable(submissions.get(ticketId)).map(Submission::toDto);
+    }
+
+    private void drain() {
+        List<Submission> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) { // on shutdown, finish what was accepted
+            try {
+                Submission first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                // no linger: under load the queue fills while the previous batch commits
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Request intake worker failed on a batch of {}", batch.size(), e);
+            } finally {
+                batch.clear();
+                expireFinished();
+            }
+        }
+    }
+
+    void process(List<Submission> batch) {
+        Map<String, List<Submission>> byTenant = batch.stream()
+                .collect(Collectors.groupingBy(s -> s.tenant, LinkedHashMap::new, Collectors.toList()));
+        byTenant.forEach((tenant, submissions) -> {
+            try (TenantContext.Scope scope = TenantContext.enter(tenant)) {
+                processTenantBatch(submissions);
+            }
+        });
+    }
+
+    private void processTenantBatch(List<Submission> batch) {
+        batches.incrementAndGet();
+        List<Runnable> outcomes;
+        try {
+            outcomes = transactionTemplate.execute(status -> insertBatch(batch));
+        } catch (RuntimeException e) {
+            log.warn("Batch of {} submissions failed, retrying them one by one", batch.size(), e);
+            batch.forEach(this::processAlone);
+            return;
+        }
+        outcomes.forEach(Runnable::run); // tickets only change once the batch has committed
+    }
+
+    private List<Runnable> insertBatch(List<Submission> batch) {
+        List<Long> authorIds = batch.stream().map(Submission::authorId).distinct().sorted().toList();
+        authorIds.forEach(employeeLocks::lockUntilTransactionEnds); // ascending, so batches never deadlock
+        Map<Long, Employee> employees = employeeRepository.findAllByIdForUpdate(authorIds).stream()
+                .collect(Collectors.toMap(Employee::getId, Function.identity()));
+
+        LocalDate from = batch.stream().map(s -> s.request.getVacationStartDate())
+                .min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate to = batch.stream().map(s -> s.request.getVacationEndDate())
+                .max(Comparator.naturalOrder()).orElseThrow();
+        Map<Long, List<VacationRequestDto>> taken = new HashMap<>();
+        for (VacationRequest existing : requestRepository.findOverlappingRequestsForAuthors(authorIds, from, to)) {
+            taken.computeIfAbsent(existing.getAuthor().getId(), id -> new ArrayList<>()).add(period(existing));
+        }
+
+        List<Runnable> outcomes = new ArrayList<>(batch.size());
+        List<Submission> accepted = new ArrayList<>(batch.size());
+        for (Submission submission : batch) {
+            String reason = check(submission, employees.get(submission.authorId()),
+                    taken.getOrDefault(submission.authorId(), List.of()));
+            if (reason != null) {
+                outcomes.add(() -> reject(submission, reason));
+                continue;
+            }
+            taken.computeIfAbsent(submission.authorId(), id -> new ArrayList<>()).add(submission.request);
+            accepted.add(submission);
+        }
+        if (accepted.isEmpty()) {
+            return outcomes;
+        }
+
+        LocalDateTime createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS); // TIMESTAMP precision
+        insertAll(accepted, employees, createdAt);
+
+        // read the generated ids back: authors are locked and their requests never overlap,
+        // so author and start date identify each new row
+        Map<String, VacationRequest> inserted = new HashMap<>();
+        List<Long> acceptedAuthors = accepted.stream().map(Submission::authorId).distinct().toList();
+        for (VacationRequest request : requestRepository.findByAuthorIdsAndCreatedAt(acceptedAuthors, createdAt)) {
+            inserted.put(request.getAuthor().getId() + "|" + request.getVacationStartDate(), request);
+        }
+        for (Submission submission : accepted) {
+            VacationRequest request = inserted.get(submission.authorId() + "|" + submission.request.getVacationStartDate());
+            if (request == null) {
+                throw new IllegalStateException("Inserted request for ticket " + submission.ticketId + " not found");
+            }
+            vacationService.publishChange(request, null);
+            outcomes.add(() -> complete(submission, request.getId()));
+        }
+        return outcomes;
+    }
+
+    // same rules and order as VacationService.createRequest, null when the submission is fine
+    private String check(Submission submission, Employee employee, List<VacationRequestDto> taken) {
+        try {
+            submission.request.validateDates();
+            if (employee == null) {
+                throw new EmployeeNotFoundException("Employee not found");
+            }
+            vacationService.requireVacationDays(employee, submission.request);
+        } catch (IllegalArgumentException | EmployeeNotFoundException | InsufficientVacationDaysException e) {
+            return e.getMessage();
+        }
+        for (VacationRequestDto other : taken) {
+            if (submission.request.overlapsWith(other.getVacationStartDate(), other.getVacationEndDate())) {
+                return "Vacation dates overlap with an existing request";
+            }
+        }
+        return null;
+    }
+
+    // one multi-row INSERT; IDENTITY ids rule out JDBC batching of persist() calls
+    private void insertAll(List<Submission> accepted, Map<Long, Employee> employees, LocalDateTime createdAt) {
+        StringBuilder hql = new StringBuilder("INSERT INTO VacationRequest "
+                + "(tenantId, author, status, requestCreatedAt, vacationStartDate, vacationEndDate) VALUES ");
+        for (int i = 0; i < accepted.size(); i++) {
+            hql.append(i == 0 ? "" : ", ")
+                    .append("(:tenant, :author").append(i).append(", 'pending', :createdAt, :start").append(i)
+                    .append(", :end").append(i).append(")");
+        }
+        Query insert = entityManager.createQuery(hql.toString());
+        insert.setParameter("tenant", TenantContext.current()); // bulk inserts are not stamped by Hibernate
+        insert.setParameter("createdAt", createdAt);
+        for (int i = 0; i < accepted.size(); i++) {
+            VacationRequestDto request = accepted.get(i).request;
+            insert.setParameter("author" + i, employees.get(request.getAuthorId()));
+            insert.setParameter("start" + i, request.getVacationStartDate());
+            insert.setParameter("end" + i, request.getVacationEndDate());
+        }
+        int rows = insert.executeUpdate();
+        if (rows != accepted.size()) {
+            throw new IllegalStateException("Intake batch inserted " + rows + " of " + accepted.size() + " requests");
+        }
+    }
+
+    private void processAlone(Submission submission) {
+        try {
+            complete(submission, vacationService.createRequest(submission.request).getId());
+        } catch (EmployeeNotFoundException | InsufficientVacationDaysException | IllegalArgumentException
+                | TooManyRequestsException e) {
+            reject(submission, e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Could not create vacation request for ticket {}", submission.ticketId, e);
+            reject(submission, "Request could not be processed, please submit it again");
+        }
+    }
+
+    private static VacationRequestDto period(VacationRequest request) {
+        VacationRequestDto period = new VacationRequestDto();
+        period.setVacationStartDate(request.getVacationStartDate());
+        period.setVacationEndDate(request.getVacationEndDate());
+        return period;
+    }
+
+    private void expireFinished() {
+        long now = System.nanoTime();
+        Submission oldest;
+        while ((oldest = finished.peek()) != null && now - oldest.finishedAt > ticketTtlNanos) {
+            finished.poll();
+            submissions.remove(oldest.ticketId, oldest);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::drain, "vacation-intake");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return enabled;
+    }
+
+    // starts before and stops after the web server, so accepted submissions are drained on shutdown
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("vacation.intake.queue.size", queue, Queue::size).register(registry);
+        FunctionCounter.builder("vacation.intake.batches", batches, AtomicLong::get).register(registry);
+        FunctionCounter.builder("vacation.intake.submissions", created, AtomicLong::get)
+                .tag("outcome", CREATED).register(registry);
+        FunctionCounter.builder("vacation.intake.submissions", rejected, AtomicLong::get)
+                .tag("outcome", REJECTED).register(registry);
+    }
+
+    private void complete(Submission submission, Long requestId) {
+        submission.requestId = requestId;
+        finish(submission, CREATED);
+        created.incrementAndGet();
+    }
+
+    private void reject(Submission submission, String reason) {
+        submission.message = reason;
+        finish(submission, REJECTED);
+        rejected.incrementAndGet();
+    }
+
+    private void finish(Submission submission, String outcome) {
+        submission.finishedAt = System.nanoTime();
+        submission.status = outcome; // written last, readers that see it also see the result
+        finished.add(submission);
+    }
+
+    static final class Submission {
+        private final String ticketId;
+        private final VacationRequestDto request;
+        private final String tenant = TenantContext.current(); // of the submitting request
+        private volatile String status = QUEUED;
+        private volatile Long requestId;
+        private volatile String message;
+        private volatile long finishedAt;
+
+        Submission(String ticketId, VacationRequestDto request) {
+            this.ticketId = ticketId;
+            this.request = request;
+        }
+
+        Long authorId() {
+            return request.getAuthorId();
+        }
+
+        SubmissionStatusDto toDto() {
+            return new SubmissionStatusDto(ticketId, request.getAuthorId(), status, requestId, message);
+        }
+    }
+}
@@ -1,30 +1,67 @@
 package com.eddie.vacation.service;
 
+import com.eddie.vacation.dto.RequestFieldSelection;
 import com.eddie.vacation.dto.RequestStatusUpdateDto;
 import com.eddie.vacation.dto.VacationRequestDto;
+import com.eddie.vacation.event.VacationRequestChangedEvent;
 import com.eddie.vacation.exception.*;
+import com.eddie.vacation.model.ArchivedVacationRequest;
+import com.eddie.vacation.model.Department;
 import com.eddie.vacation.model.Employee;
 import com.eddie.vacation.model.VacationRequest;
+import com.eddie.vacation.repository.ArchivedVacationRequestRepository;
 import com.eddie.vacation.repository.EmployeeRepository;
 import com.eddie.vacation.repository.VacationRequestRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service // marking business logic as bean
 public class VacationService {
 
     private final VacationRequestRepository requestRepository;
     private final EmployeeRepository employeeRepository;
+    private final WorkingDayCalendar workingDayCalendar;
+    private final TeamOccupancyTracker teamOccupancy;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EmployeeWriteLocks employeeLocks;
+    private final ReadCoalescer readCoalescer;
+    private final ArchivedVacationRequestRepository archiveRepository;
+    private final AbsenceIndex absenceIndex;
 
     @Autowired
     public VacationService(VacationRequestRepository requestRepository,
-            EmployeeRepository employeeRepository) {
+            EmployeeRepository employeeRepository,
+            WorkingDayCalendar workingDayCalendar,
+            TeamOccupancyTracker teamOccupancy,
+            ApplicationEventPublisher eventPublisher,
+            EmployeeWriteLocks employeeLocks,
+            ReadCoalescer readCoalescer,
+            ArchivedVacationRequestRepository archiveRepository,
+            AbsenceIndex absenceIndex) {
         this.requestRepository = requestRepository;
         this.employeeRepository = employeeRepository;
+        this.workingDayCalendar = workingDayCalendar;
+        this.teamOccupancy = teamOccupancy;
+        this.eventPublisher = eventPublisher;
+        this.employeeLocks = employeeLocks;
+        this.readCoalescer = readCoalescer;
+        this.archiveRepository = archiveRepository;
+        this.absenceIndex = absenceIndex;
     }
 
     @Transactional // ensures database operations run in transaction to commit/role back
@@ -32,13 +69,13 @@ public class VacationService {
     public VacationRequest createRequest(VacationRequestDto requestDto) {
         requestDto.validateDates();
 
-        Employee employee = employeeRepository.findById(requestDto.getAuthorId())
+        // overlap check and insert must not interleave for the same employee: the in-process lock
+        // keeps other threads out until commit, the row lock does the same across instances
+        employeeLocks.lockUntilTransactionEnds(requestDto.getAuthorId());
+        Employee employee = employeeRepository.findByIdForUpdate(requestDto.getAuthorId())
                 .orElseThrow(() -> new EmployeeNotFoundException("Employee not found"));
 
-        int requestedDays = requestDto.getDurationInDays();
-        if (employee.getRemainingVacationDays() < requestedDays) {
-            throw new InsufficientVacationDaysException("Not enough vacation days remaining");
-        }
+        requireVacationDays(employee, requestDto);
 
         List<VacationRequest> overlaps = requestRepository.findEmployeeOverlappingRequests(
                 employee.getId(),
@@ -54,7 +91,23 @@ public class VacationService {
         request.setVacationEndDate(requestDto.getVacationEndDate());
         request.setStatus("pending");
 
-        return requestRepository.save(request);
+        VacationRequest saved = requestRepository.save(request);
+        publishChange(saved, null);
+        return saved;
+    }
+
+    // balance rule for a new request, shared with the batched path in VacationRequestIntake
+    int requireVacationDays(Employee employee, VacationRequestDto requestDto) {
+        // only working days are deducted, weekends and public holidays are free
+        int requestedDays = workingDayCalendar.countWorkingDays(employee.getRegion(),
+                requestDto.getVacationStartDate(), requestDto.getVacationEndDate());
+        if (requestedDays == 0) {
+            throw new IllegalArgumentException("Requested period contains no working days");
+        }
+        if (employee.getRemainingVacationDays() < requestedDays) {
+            throw new InsufficientVacationDaysException("Not enough vacation days remaining");
+        }
+        return requestedDays;
     }
 
     @Transactional
@@ -78,24 +131,80 @@ public class VacationService {
             throw new UnauthorizedException("Managers cannot approve or reject their own requests");
         }
 
+        // with a reporting line in place only the employee's own manager may resolve
+        Employee reportsTo = request.getAuthor().getReportsTo();
+        if (reportsTo != null && !reportsTo.getId().equals(manager.getId())) {
+            throw new UnauthorizedException("Managers can only approve or reject requests of their own reports");
+        }
+
+        Employee employee = request.getAuthor();
+        Department department = employee.getDepartment();
+
         if ("approved".equals(statusUpdate.getStatus())) {
             if (!"pending".equals(request.getStatus())) {
                 throw new IllegalArgumentException("Only pending requests can be approved");
             }
 
-            Employee employee = request.getAuthor();
-            int duration = request.getDurationInDays();
+            int duration = workingDayCalendar.countWorkingDays(employee.getRegion(),
+                    request.getVacationStartDate(), request.getVacationEndDate());
             if (employee.getRemainingVacationDays() < duration) {
                 throw new InsufficientVacationDaysException("Not enough remaining vacation days");
             }
 
+            if (department != null && department.getMinStaffing() > 0) {
+                int maxAbsent = (int) employeeRepository.countByDepartmentId(department.getId())
+                        - department.getMinStaffing();
+                teamOccupancy.reserve(department.getId(), employee.getRegion(),
+                        request.getVacationStartDate(), request.getVacationEndDate(), maxAbsent);
+            }
+
             employee.setRemainingVacationDays(employee.getRemainingVacationDays() - duration);
             employeeRepository.save(employee);
+        } else if ("approved".equals(request.getStatus()) && department != null) {
+            teamOccupancy.release(department.getId(), request.getVacationStartDate(), request.getVacationEndDate());
         }
 
+        String previousStatus = request.getStatus();
         request.setStatus(statusUpdate.getStatus());
         request.setResolvedBy(manager);
-        return requestRepository.save(request);
+        request.setResolvedAt(LocalDateTime.now());
+        VacationRequest saved = requestRepository.save(request);
+        publishChange(saved, previousStatus);
+        return saved;
+    }
+
+    /**
+     * Rejects a request that nobody resolved within the SLA, without a resolving manager.
+     *
+     * @return false when the request is gone or no longer pending
+     */
+    @Transactional
+    public boolean expirePendingRequest(Long requestId) {
+        VacationRequest request = requestRepository.findById(requestId).orElse(null);
+        if (request == null || !"pending".equals(request.getStatus())) {
+            return false;
+        }
+        // conditional update, a manager decision committed meanwhile wins
+        LocalDateTime now = LocalDateTime.now();
+        if (requestRepository.rejectIfPending(requestId, now) == 0) {
+            return false;
+        }
+        request.setStatus("rejected"); // detached by the update, only feeds the event
+        request.setResolvedAt(now);
+        publishChange(request, "pending");
+        return true;
+    }
+
+    // listeners (version stamps, caches) run after the transaction commits
+    void publishChange(VacationRequest request, String previousStatus) {
+        eventPublisher.publishEvent(new VacationRequestChangedEvent(
+                request.getId(),
+                request.getAuthor().getId(),
+                previousStatus,
+                request.getStatus(),
+                request.getVacationStartDate(),
+                request.getVacationEndDate(),
+                request.getResolvedAt() != null ? request.getResolvedAt() : request.getRequestCreatedAt()));
     }
 
     public List<VacationRequest> getRequestsByEmployee(Long employeeId) {
@@ -110,12 +219,74 @@ public class VacationService {
         return requestRepository.findByAuthorAndStatus(employee, status);
     }
 
+    /**
+     * Only the selected fields of an employee's requests, see RequestFieldSelection.
+     */
+    public List<Map<String, Object>> getRequestViewsByEmployee(Long employeeId, String status,
+            RequestFieldSelection selection) {
+        if (!employeeRepository.existsById(employeeId)) {
+            throw new EmployeeNotFoundException("Employee not found");
+        }
+        return requestRepository.findProjected(selection, employeeId, status);
+    }
+
+    /**
+     * Live requests plus the ones moved to the archive, for history views.
+     * The regular getters only read the live table.
+     */
+    public List<VacationRequest> getRequestHistoryByEmployee(Long employeeId, String status) {
+        Employee employee = employeeRepository.findById(employeeId)
+                .orElseThrow(() -> new EmployeeNotFoundException("Employee not found"));
+
+        List<VacationRequest> history = new ArrayList<>(status == null
+                ? requestRepository.findByAuthor(employee)
+                : requestRepository.findByAuthorAndStatus(employee, status));
+        List<ArchivedVacationRequest> archived = status == null
+                ? archiveRepository.findByAuthorId(employeeId)
+                : archiveRepository.findByAuthorIdAndStatus(employeeId, status);
+        history.addAll(fromArchive(archived));
+        return history;
+    }
+
+    private List<VacationRequest> fromArchive(List<ArchivedVacationRequest> archived) {
+        if (archived.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> employeeIds = new HashSet<>();
+        for (ArchivedVacationRequest request : archived) {
+            employeeIds.add(request.getAuthorId());
+            if (request.getResolvedById() != null) {
+                employeeIds.add(request.getResolvedById());
+            }
+        }
+        Map<Long, Employee> employees = employeeRepository.findAllById(employeeIds).stream()
+                .collect(Collectors.toMap(Employee::getId, Function.identity()));
+        return archived.stream()
+                .map(request -> request.toVacationRequest(id -> employees.computeIfAbsent(id, VacationService::removedEmployee)))
+                .toList();
+    }
+
+    // archived history can outlive the employee row
+    private static Employee removedEmployee(Long id) {
+        Employee employee = new Employee();
+        employee.setId(id);
+        return employee;
+    }
+
+    // dashboard reads below are shared between concurrent callers, see ReadCoalescer
     public List<VacationRequest> getAllRequests() {
-        return requestRepository.findAll();
+        return readCoalescer.coalesce("requests:all", () -> List.copyOf(requestRepository.findAll()));
     }
 
     public List<VacationRequest> getRequestsByStatus(String status) {
-        return requestRepository.findByStatus(status);
+        return readCoalescer.coalesce("requests:status:" + status,
+                () -> List.copyOf(requestRepository.findByStatus(status)));
+    }
+
+    // narrow variant of getAllRequests/getRequestsByStatus, shared the same way
+    public List<Map<String, Object>> getRequestViews(String status, RequestFieldSelection selection) {
+        return readCoalescer.coalesce("requests:views:" + status + ":" + selection.key(),
+                () -> List.copyOf(requestRepository.findProjected(selection, null, status)));
     }
 
     public int getRemainingVacationDays(Long employeeId) {
@@ -124,12 +295,37 @@ public class VacationService {
         return employee.getRemainingVacationDays();
     }
 
+    // batched lookup for internal callers: one query, ids without an employee are left out
+    public Map<Long, Integer> getRemainingVacationDays(Collection<Long> employeeIds) {
+        Map<Long, Integer> remaining = new LinkedHashMap<>();
+        for (Employee employee : employeeRepository.findAllById(employeeIds)) {
+            remaining.put(employee.getId(), employee.getRemainingVacationDays());
+        }
+        return remaining;
+    }
+
     public List<VacationRequest> findOverlappingRequests(LocalDate startDate, LocalDate endDate) {
-        return requestRepository.findOverlappingApprovedRequests(startDate, endDate);
+        return readCoalescer.coalesce("requests:overlapping:" + startDate + ":" + endDate,
+                () -> List.copyOf(requestRepository.findOverlappingApprovedRequests(startDate, endDate)));
+    }
+
+    /**
+     * Ids of employees off on each day of the range (approved requests only), optionally
+     * only those in {@code employeeIds}. Answered from the in-memory AbsenceIndex.
+     */
+    public Map<LocalDate, List<Long>> getAbsences(LocalDate startDate, LocalDate endDate, List<Long> employeeIds) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must be after start date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) > 366) {
+            throw new IllegalArgumentException("Date range must not exceed one year");
+        }
+        return absenceIndex.absentBetween(startDate, endDate, employeeIds);
     }
 
     public List<VacationRequest> getPendingRequestsForManager() {
-        return requestRepository.findAllPendingRequests();
+        return readCoalescer.coalesce("requests:pending",
+                () -> List.copyOf(requestRepository.findAllPendingRequests()));
     }
 
     public List<VacationRequest> getRequestsForManager(Long managerId) {
@@ -140,6 +336,7 @@ public class VacationService {
             throw new UnauthorizedException("Only managers can view requests");
         }
 
-        return requestRepository.findAllPendingRequests();
+        return readCoalescer.coalesce("requests:pending:manager:" + managerId,
+                () -> List.copyOf(requestRepository.findPendingRequestsForManager(managerId))); // plus unassigned authors
     }
 }
@@ -0,0 +1,158 @@
+package com.eddie.vacation.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.format.DateTimeParseException;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts working days (no weekends, no public holidays) between two dates.
+ * Each region/year is precomputed once into a bitset of working days plus a
+ * prefix-sum array, so a duration is two array lookups per calendar year spanned.
+ */
+@Component
+public class WorkingDayCalendar {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkingDayCalendar.class);
+
+    private final String defaultRegion;
+
+    // region -> year -> holidays as day-of-year bits (bit 0 = 1 January)
+    private final Map<String, Map<Integer, BitSet>> holidays = new HashMap<>();
+
+    // "REGION:year" -> precomputed year, built lazily for years not in the file (weekends only)
+    private final Map<String, YearCalendar> calendars = new ConcurrentHashMap<>();
+
+    @Autowired
+    public WorkingDayCalendar(@Value("${vacation.calendar.file:classpath:holidays.csv}") Resource holidayFile,
+            @Value("${vacation.calendar.default-region:ZA}") String defaultRegion) {
+        this.defaultRegion = normalize(defaultRegion);
+        loadHolidays(holidayFile);
+    }
+
+    public int countWorkingDays(String region, LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Both start and end dates are required");
+        }
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("End date must be after start date");
+        }
+
+        String key = region == null ? defaultRegion : normalize(region);
+        int total = 0;
+        for (int year = startDate.getYear(); year <= endDate.getYear(); year++) {
+            YearCalendar calendar = yearCalendar(key, year);
+            int from = year == startDate.getYear() ? startDate.getDayOfYear() - 1 : 0;
+            int to = year == endDate.getYear() ? endDate.getDayOfYear() - 1 : calendar.length() - 1;
+            total += calendar.countBetween(from, to);
+        }
+        return total;
+    }
+
+    public boolean isWorkingDay(String region, LocalDate date) {
+        String key = region == null ? defaultRegion : normalize(region);
+        return yearCalendar(key, date.getYear()).isWorkingDay(date.getDayOfYear() - 1);
+    }
+
+    public String getDefaultRegion() {
+        return defaultRegion;
+    }
+
+    private YearCalendar yearCalendar(String region, int year) {
+        return calendars.computeIfAbsent(region + ":" + year, k -> buildYear(region, year));
+    }
+
+    private YearCalendar buildYear(String region, int year) {
+        BitSet regionHolidays = holidays.getOrDefault(region, Map.of()).getOrDefault(year, new BitSet());
+        int length = Year.of(year).length();
+        LocalDate firstDay = LocalDate.of(year, 1, 1);
+
+        BitSet working = new BitSet(length);
+        short[] prefix = new short[length + 1]; // max 366, fits in a short
+        for (int day = 0; day < length; day++) {
+            DayOfWeek dow = firstDay.plusDays(day).getDayOfWeek();
+            boolean isWorking = dow != DayOfWeek.SATURDAY && dow != DayOfWeek.SUNDAY && !regionHolidays.get(day);
+            working.set(day, isWorking);
+            prefix[day + 1] = (short) (prefix[day] + (isWorking ? 1 : 0));
+        }
+        return new YearCalendar(working, prefix);
+    }
+
+    private void loadHolidays(Resource holidayFile) {
+        if (holidayFile == null || !holidayFile.exists()) {
+            log.warn("Holiday calendar {} not found, only weekends will be excluded", holidayFile);
+            return;
+        }
+
+        int loaded = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(holidayFile.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split(",", 3); // region,date[,name]
+                if (parts.length < 2) {
+                    log.warn("Skipping malformed holiday line: {}", line);
+                    continue;
+                }
+                try {
+                    LocalDate date = LocalDate.parse(parts[1].trim());
+                    holidays.computeIfAbsent(normalize(parts[0]), r -> new HashMap<>())
+                            .computeIfAbsent(date.getYear(), y -> new BitSet())
+                            .set(date.getDayOfYear() - 1);
+                    loaded++;
+                } catch (DateTimeParseException e) {
+                    log.warn("Skipping holiday with invalid date: {}", line);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read holiday calendar " + holidayFile, e);
+        }
+        log.info("Loaded {} public holidays for regions {}", loaded, holidays.keySet());
+    }
+
+    private static String normalize(String region) {
+        return region.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static final class YearCalendar {
+        private final BitSet workingDays;
+        private final short[] prefix; // prefix[i] = working days before day-of-year index i
+
+        private YearCalendar(BitSet workingDays, short[] prefix) {
+            this.workingDays = workingDays;
+            this.prefix = prefix;
+        }
+
+        int length() {
+            return prefix.length - 1;
+        }
+
+        int countBetween(int fromInclusive, int toInclusive) {
+            return prefix[toInclusive + 1] - prefix[fromInclusive];
+        }
+
+        boolean isWorkingDay(int dayIndex) {
+            return workingDays.get(dayIndex);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.eddie.vacation.service;
+
+import com.eddie.vacation.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Admission control in front of the VacationService write operations.
+ * <ul>
+ * <li>Per-client token bucket, kept as a single "theoretical arrival time" per key
+ * (GCRA form), so admitting a call is one CAS with no locks.</li>
+ * <li>Global concurrency cap, so a burst of writes cannot take every pooled connection
+ * away from readers. Callers wait briefly for a slot and are shed after that.</li>
+ * </ul>
+ * Rejections surface as {@link TooManyRequestsException} (429 with Retry-After).
+ */
+@Component
+public class WriteAdmissionControl implements MeterBinder {
+
+    private final long emissionIntervalNanos; // time for one token to refill
+    private final long burstWindowNanos; // how far ahead of "now" a client may run
+    private final int maxTrackedClients;
+    private final long maxQueueWaitMillis;
+    private final Semaphore writeSlots;
+    private final int maxConcurrentWrites;
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong shed = new AtomicLong();
+
+    @Autowired
+    public WriteAdmissionControl(@Value("${vacation.admission.rate-per-second:5}") double ratePerSecond,
+            @Value("${vacation.admission.burst:10}") int burst,
+            @Value("${vacation.admission.max-tracked-clients:100000}") int maxTrackedClients,
+            @Value("${vacation.admission.max-concurrent-writes:16}") int maxConcurrentWrites,
+            @Value("${vacation.admission.max-queue-wait-ms:50}") long maxQueueWaitMillis) {
+        if (ratePerSecond <= 0 || burst < 1 || maxConcurrentWrites < 1) {
+            throw new IllegalArgumentException("Admission limits must be positive");
+        }
+        this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        this.burstWindowNanos = emissionIntervalNanos * burst;
+        this.maxTrackedClients = maxTrackedClients;
+        this.maxConcurrentWrites = maxConcurrentWrites;
+        this.maxQueueWaitMillis = maxQueueWaitMillis;
+        this.writeSlots = new Semaphore(maxConcurrentWrites);
+    }
+
+    public <T> T execute(String clientKey, Supplier<T> write) {
+        acquireToken(clientKey);
+
+        boolean acquired;
+        try {
+            acquired = writeSlots.tryAcquire(maxQueueWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            shed.incrementAndGet();
+            throw new TooManyRequestsException("Server is busy, please retry shortly", 1);
+        }
+
+        admitted.incrementAndGet();
+        try {
+            return write.get();
+        } finally {
+            writeSlots.release();
+        }
+    }
+
+    private void acquireToken(String clientKey) {
+        AtomicLong theoreticalArrival = buckets.computeIfAbsent(clientKey, k -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = System.nanoTime();
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + emissionIntervalNanos;
+            long aheadBy = next - now;
+            if (aheadBy > burstWindowNanos) {
+                rateLimited.incrementAndGet();
+                long retryAfterSeconds = (aheadBy - burstWindowNanos + 999_999_999L) / 1_000_000_000L; // round up
+                throw new TooManyRequestsException("Too many requests, please slow down",
+                        Math.max(1, retryAfterSeconds));
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                break;
+            }
+        }
+
+        if (buckets.size() > maxTrackedClients) {
+            evictIdleBuckets();
+        }
+    }
+
+    // a bucket whose arrival time is in the past is full again, forgetting it changes nothing
+    private void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.entrySet().removeIf(entry -> entry.getValue().get() - now <= 0);
+    }
+
+    public long getAdmittedCount() {
+        return admitted.get();
+    }
+
+    public long getRateLimitedCount() {
+        return rateLimited.get();
+    }
+
+    public long getShedCount() {
+        return shed.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("vacation.admission.requests", admitted, AtomicLong::get)
+                .tag("outcome", "admitted").register(registry);
+        FunctionCounter.builder("vacation.admission.requests", rateLimited, AtomicLong::get)
+                .tag("outcome", "rate_limited").register(registry);
+        FunctionCounter.builder("vacation.admission.requests", shed, AtomicLong::get)
+                .tag("outcome", "shed").register(registry);
+        Gauge.builder("vacation.admission.in_flight", writeSlots,
+                slots -> maxConcurrentWrites - slots.availablePermits()).register(registry);
+        Gauge.builder("vacation.admission.tracked_clients", buckets, Map::size).register(registry);
+    }
+}
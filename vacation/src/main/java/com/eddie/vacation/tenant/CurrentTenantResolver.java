@@ -0,0 +1,26 @@
+package com.eddie.vacation.tenant;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/**
+ * Hands Hibernate the tenant of the current thread when a session opens; the session then
+ * filters every @TenantId entity by it and stamps it on new rows. The root tenant sees and
+ * writes rows of all tenants (it has to set the tenant of anything it inserts).
+ */
+public class CurrentTenantResolver implements CurrentTenantIdentifierResolver<String> {
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        return TenantContext.current();
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false; // sessions come from Spring, not getCurrentSession()
+    }
+
+    @Override
+    public boolean isRoot(String tenantId) {
+        return TenantContext.ROOT.equals(tenantId);
+    }
+}
@@ -0,0 +1,143 @@
+package com.eddie.vacation.tenant;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hibernate's connection source in front of the shared pool, with a bounded share of it per
+ * tenant: a session of a tenant that already holds max-per-tenant connections waits up to
+ * wait-ms for one of its own to come back and then fails, however idle the pool is for
+ * others. One busy tenant therefore cannot starve the rest, while all tenants still share
+ * one pool and one set of prepared statements. A limit of 0 leaves tenants uncapped
+ * (single-tenant mode).
+ */
+public class TenantConnectionPools implements MultiTenantConnectionProvider<String>, MeterBinder {
+
+    private final DataSource dataSource;
+    private final int maxPerTenant;
+    private final long waitMillis;
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+    private final AtomicLong timeouts = new AtomicLong();
+    private volatile MeterRegistry registry; // null until metrics are bound
+
+    public TenantConnectionPools(DataSource dataSource, int maxPerTenant, long waitMillis) {
+        if (maxPerTenant < 0 || waitMillis < 0) {
+            throw new IllegalArgumentException("Per-tenant connection limit and wait must not be negative");
+        }
+        this.dataSource = dataSource;
+        this.maxPerTenant = maxPerTenant;
+        this.waitMillis = waitMillis;
+    }
+
+    // schema management and metadata at startup, not on behalf of a tenant
+    @Override
+    public Connection getAnyConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    @Override
+    public void releaseAnyConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public Connection getConnection(String tenant) throws SQLException {
+        if (maxPerTenant == 0) {
+            return dataSource.getConnection();
+        }
+        Semaphore tenantPermits = permits(tenant);
+        try {
+            if (!tenantPermits.tryAcquire(waitMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLTransientConnectionException("Tenant " + tenant + " already holds "
+                        + maxPerTenant + " connections");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted waiting for a connection", e);
+        }
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException | RuntimeException e) {
+            tenantPermits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void releaseConnection(String tenant, Connection connection) throws SQLException {
+        try {
+            connection.close();
+        } finally {
+            if (maxPerTenant > 0) {
+                permits(tenant).release();
+            }
+        }
+    }
+
+    public int inUse(String tenant) {
+        Semaphore tenantPermits = permits.get(tenant);
+        return tenantPermits == null ? 0 : maxPerTenant - tenantPermits.availablePermits();
+    }
+
+    private Semaphore permits(String tenant) {
+        Semaphore existing = permits.get(tenant);
+        if (existing != null) {
+            return existing;
+        }
+        return permits.computeIfAbsent(tenant, t -> {
+            MeterRegistry meters = registry;
+            if (meters != null) {
+                registerGauge(meters, t);
+            }
+            return new Semaphore(maxPerTenant, true); // fair, waiting sessions of a tenant go in order
+        });
+    }
+
+    private void registerGauge(MeterRegistry meters, String tenant) {
+        Gauge.builder("vacation.tenancy.connections", this, pools -> pools.inUse(tenant))
+                .tag("tenant", tenant).register(meters);
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> unwrapType) {
+        return unwrapType.isInstance(this) || unwrapType.isInstance(dataSource);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (unwrapType.isInstance(this)) {
+            return (T) this;
+        }
+        if (unwrapType.isInstance(dataSource)) {
+            return (T) dataSource;
+        }
+        throw new IllegalArgumentException("Cannot unwrap to " + unwrapType);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        permits.keySet().forEach(tenant -> registerGauge(registry, tenant));
+        FunctionCounter.builder("vacation.tenancy.connection-timeouts", timeouts, AtomicLong::get).register(registry);
+    }
+}
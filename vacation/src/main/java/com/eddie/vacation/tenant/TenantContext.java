@@ -0,0 +1,55 @@
+package com.eddie.vacation.tenant;
+
+/**
+ * Tenant the current thread works for. Set per HTTP request by TenantFilter and per gRPC call
+ * by TenantServerInterceptor; threads without one work for {@link #DEFAULT}, which is also the
+ * only tenant in single-tenant mode. Background jobs that cover every tenant (archival, SLA
+ * escalation) run as {@link #ROOT}, which Hibernate lets see all rows.
+ * <p>
+ * Hibernate reads the tenant when a session opens, so switching it inside an open session
+ * (or transaction) has no effect on that session.
+ */
+public final class TenantContext {
+
+    public static final String DEFAULT = "default";
+    public static final String ROOT = "*"; // never a valid tenant name
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String current() {
+        String tenant = CURRENT.get();
+        return tenant == null ? DEFAULT : tenant;
+    }
+
+    public static boolean isRoot() {
+        return ROOT.equals(CURRENT.get());
+    }
+
+    /**
+     * Works for {@code tenant} until the returned scope is closed, then restores the previous tenant.
+     */
+    public static Scope enter(String tenant) {
+        String previous = CURRENT.get();
+        CURRENT.set(tenant);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    public static Scope enterRoot() {
+        return enter(ROOT);
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
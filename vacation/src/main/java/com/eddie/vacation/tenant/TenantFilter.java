@@ -0,0 +1,57 @@
+package com.eddie.vacation.tenant;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the tenant named by the X-Tenant-Id header to the request thread for everything
+ * under /api. Runs before the open-session-in-view interceptor, so the request's Hibernate
+ * session opens for the right tenant. A missing or unknown tenant is answered with 400.
+ */
+@Component
+public class TenantFilter extends OncePerRequestFilter {
+
+    private final ObjectProvider<TenantRegistry> registry;
+
+    public TenantFilter(ObjectProvider<TenantRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/"); // actuator and console stay on the default tenant
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        TenantRegistry tenants = registry.getIfAvailable();
+        if (tenants == null || !tenants.isEnabled()) {
+            chain.doFilter(request, response); // single-tenant mode, or web slice tests
+            return;
+        }
+        String tenant;
+        try {
+            tenant = tenants.resolve(request.getHeader(TenantRegistry.HEADER));
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"message\":\"" + e.getMessage() + "\"}"); // fixed messages, nothing to escape
+            return;
+        }
+        response.addHeader(HttpHeaders.VARY, TenantRegistry.HEADER); // shared caches must not mix tenants
+        try (TenantContext.Scope scope = TenantContext.enter(tenant)) {
+            chain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.eddie.vacation.tenant;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * The tenants this process serves (vacation.tenancy.tenants) and the lookup of the tenant
+ * named by a request header or gRPC metadata entry. With multi-tenant mode off the header
+ * is ignored and everything belongs to {@link TenantContext#DEFAULT}.
+ */
+@Component
+public class TenantRegistry {
+
+    public static final String HEADER = "X-Tenant-Id";
+
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_-]{1,64}"); // fits tenant_id
+
+    private final boolean enabled;
+    private final Set<String> tenants;
+
+    @Autowired
+    public TenantRegistry(@Value("${vacation.tenancy.enabled:false}") boolean enabled,
+            @Value("${vacation.tenancy.tenants:default}") List<String> tenants) {
+        for (String tenant : tenants) {
+            if (!NAME.matcher(tenant).matches()) {
+                throw new IllegalArgumentException("Invalid tenant name: " + tenant);
+            }
+        }
+        this.enabled = enabled;
+        this.tenants = Set.copyOf(tenants);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Set<String> getTenants() {
+        return enabled ? tenants : Set.of(TenantContext.DEFAULT);
+    }
+
+    /**
+     * @param header value of the X-Tenant-Id header, may be null
+     * @throws IllegalArgumentException when multi-tenant mode is on and the header names no known tenant
+     */
+    public String resolve(String header) {
+        if (!enabled) {
+            return TenantContext.DEFAULT;
+        }
+        if (header == null || header.isBlank()) {
+            throw new IllegalArgumentException("Missing " + HEADER + " header");
+        }
+        String tenant = header.trim();
+        if (!tenants.contains(tenant)) {
+            throw new IllegalArgumentException("Unknown tenant");
+        }
+        return tenant;
+    }
+}
@@ -0,0 +1,31 @@
+-- Reference data for the durable (file-backed) profile. Runs on every start after Hibernate
+-- has created/updated the tables, and only inserts into empty tables, so a restart never
+-- reloads or duplicates anything. Ids come from the identity columns.
+
+-- Email and department name are unique per tenant since multi-tenancy; ddl-auto=update adds the
+-- (tenant_id, ...) constraints but never drops the old single-column ones Hibernate created
+-- under these hashed names in databases from before then.
+ALTER TABLE employees DROP CONSTRAINT IF EXISTS UKJ9XGMD0YA5JMUS09O0B8PQRPB;
+ALTER TABLE departments DROP CONSTRAINT IF EXISTS UKJ6CWKS7XECS5JOV19RO8GE3QK;
+
+INSERT INTO departments (name, min_staffing)
+SELECT * FROM (VALUES ('Engineering', 1), ('Operations', 1))
+WHERE NOT EXISTS (SELECT 1 FROM departments);
+
+INSERT INTO employees (name, email, is_manager, remaining_vacation_days, department_id)
+SELECT v.name, v.email, v.is_manager, v.days, d.id
+FROM (VALUES
+        ('John Employee', 'john@company.com', FALSE, 25, 'Engineering'),
+        ('Sarah Manager', 'sarah@company.com', TRUE, 30, 'Engineering'),
+        ('Mike Employee', 'mike@company.com', FALSE, 15, 'Operations'),
+        ('Lisa Manager', 'lisa@company.com', TRUE, 30, 'Operations'))
+    AS v(name, email, is_manager, days, department)
+JOIN departments d ON d.name = v.department
+WHERE NOT EXISTS (SELECT 1 FROM employees);
+
+-- reporting lines, only while none exist yet (i.e. right after the insert above)
+UPDATE employees e
+SET manager_id = (SELECT m.id FROM employees m WHERE m.email =
+        CASE e.email WHEN 'john@company.com' THEN 'sarah@company.com' ELSE 'lisa@company.com' END)
+WHERE e.email IN ('john@company.com', 'mike@company.com')
+AND NOT EXISTS (SELECT 1 FROM employees WHERE manager_id IS NOT NULL);
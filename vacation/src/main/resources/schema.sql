@@ -1,20 +1,31 @@
 -- H2 2.3.232;
 ;             
 CREATE USER IF NOT EXISTS "SA" SALT '269025a90f5bba5f' HASH '03bafa6cf4eb99d90b8b0e97246c07666096b8bdc05dce8a8e5a22d88544b79d' ADMIN;         
+CREATE MEMORY TABLE "PUBLIC"."DEPARTMENTS"(
+    "ID" BIGINT GENERATED BY DEFAULT AS IDENTITY(START WITH 1 RESTART WITH 3) NOT NULL,
+    "NAME" CHARACTER VARYING(255) NOT NULL,
+    "MIN_STAFFING" INTEGER DEFAULT 0 NOT NULL
+);
+ALTER TABLE "PUBLIC"."DEPARTMENTS" ADD CONSTRAINT "PUBLIC"."CONSTRAINT_D" PRIMARY KEY("ID");
+INSERT INTO "PUBLIC"."DEPARTMENTS" VALUES
+(1, 'Engineering', 1),
+(2, 'Operations', 1);
 CREATE MEMORY TABLE "PUBLIC"."EMPLOYEES"(
     "ID" BIGINT GENERATED BY DEFAULT AS IDENTITY(START WITH 1 RESTART WITH 5) NOT NULL,
     "NAME" CHARACTER VARYING(255) NOT NULL,
     "EMAIL" CHARACTER VARYING(255) NOT NULL,
     "IS_MANAGER" BOOLEAN DEFAULT FALSE,
-    "REMAINING_VACATION_DAYS" INTEGER DEFAULT 30
+    "REMAINING_VACATION_DAYS" INTEGER DEFAULT 30,
+    "DEPARTMENT_ID" BIGINT,
+    "MANAGER_ID" BIGINT
 );  
 ALTER TABLE "PUBLIC"."EMPLOYEES" ADD CONSTRAINT "PUBLIC"."CONSTRAINT_4" PRIMARY KEY("ID");    
 -- 4 +/- SELECT COUNT(*) FROM PUBLIC.EMPLOYEES;               
 INSERT INTO "PUBLIC"."EMPLOYEES" VALUES
-(1, 'John Employee', 'john@company.com', FALSE, 25),
-(2, 'Sarah Manager', 'sarah@company.com', TRUE, 30),
-(3, 'Mike Employee', 'mike@company.com', FALSE, 15),
-(4, 'Lisa Manager', 'lisa@company.com', TRUE, 30); 
+(1, 'John Employee', 'john@company.com', FALSE, 25, 1, 2),
+(2, 'Sarah Manager', 'sarah@company.com', TRUE, 30, 1, NULL),
+(3, 'Mike Employee', 'mike@company.com', FALSE, 15, 2, 4),
+(4, 'Lisa Manager', 'lisa@company.com', TRUE, 30, 2, NULL); 
 CREATE MEMORY TABLE "PUBLIC"."VACATION_REQUESTS"(
     "ID" BIGINT GENERATED BY DEFAULT AS IDENTITY(START WITH 1 RESTART WITH 5) NOT NULL,
     "AUTHOR_ID" BIGINT NOT NULL,
@@ -31,6 +42,9 @@ INSERT INTO "PUBLIC"."VACATION_REQUESTS" VALUES
 (2, 1, 'approved', 2, TIMESTAMP '2025-08-15 22:45:47.244685', DATE '2025-11-10', DATE '2025-11-15'),
 (3, 3, 'rejected', 4, TIMESTAMP '2025-08-15 22:45:47.244685', DATE '2025-12-10', DATE '2025-12-20'),
 (4, 1, 'pending', NULL, TIMESTAMP '2025-08-15 22:55:29.025202', DATE '2025-12-10', DATE '2025-12-15');     
-ALTER TABLE "PUBLIC"."EMPLOYEES" ADD CONSTRAINT "PUBLIC"."CONSTRAINT_43" UNIQUE NULLS DISTINCT ("EMAIL");     
 ALTER TABLE "PUBLIC"."VACATION_REQUESTS" ADD CONSTRAINT "PUBLIC"."CONSTRAINT_2F0" FOREIGN KEY("RESOLVED_BY_ID") REFERENCES "PUBLIC"."EMPLOYEES"("ID") NOCHECK;
 ALTER TABLE "PUBLIC"."VACATION_REQUESTS" ADD CONSTRAINT "PUBLIC"."CONSTRAINT_2F" FOREIGN KEY("AUTHOR_ID") REFERENCES "PUBLIC"."EMPLOYEES"("ID") NOCHECK;      
+ALTER TABLE "PUBLIC"."EMPLOYEES" ADD CONSTRAINT "PUBLIC"."CONSTRAINT_4D" FOREIGN KEY("DEPARTMENT_ID") REFERENCES "PUBLIC"."DEPARTMENTS"("ID") NOCHECK;
+ALTER TABLE "PUBLIC"."EMPLOYEES" ADD CONSTRAINT "PUBLIC"."CONSTRAINT_4M" FOREIGN KEY("MANAGER_ID") REFERENCES "PUBLIC"."EMPLOYEES"("ID") NOCHECK;
+CREATE INDEX "PUBLIC"."IDX_EMPLOYEES_MANAGER" ON "PUBLIC"."EMPLOYEES"("MANAGER_ID");
+CREATE INDEX "PUBLIC"."IDX_EMPLOYEES_DEPARTMENT" ON "PUBLIC"."EMPLOYEES"("DEPARTMENT_ID");
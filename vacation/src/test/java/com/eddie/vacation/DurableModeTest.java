@@ -0,0 +1,75 @@
+package com.eddie.vacation;
+
+import com.eddie.vacation.model.Employee;
+import com.eddie.vacation.repository.EmployeeRepository;
+import com.eddie.vacation.service.H2StoreMaintenance;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DurableModeTest {
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void durableProfile_keepsDataAcrossRestartWithoutReseeding() {
+        Long savedId;
+        try (ConfigurableApplicationContext context = start()) {
+            EmployeeRepository employees = context.getBean(EmployeeRepository.class);
+            assertEquals(4, employees.count()); // seeded on first start
+            Long managerId = employees.findByEmail("john@company.com").orElseThrow().getReportsTo().getId();
+            assertEquals("sarah@company.com", employees.findById(managerId).orElseThrow().getEmail());
+
+            Employee employee = new Employee();
+            employee.setName("Durable Employee");
+            employee.setEmail("durable@company.com");
+            savedId = employees.save(employee).getId();
+
+            H2StoreMaintenance maintenance = context.getBean(H2StoreMaintenance.class);
+            maintenance.compactOnline();
+            assertTrue(maintenance.fillRate() > 0);
+        }
+        assertTrue(Files.exists(dataDir.resolve("vacationdb.mv.db")));
+
+        try (ConfigurableApplicationContext context = start()) {
+            EmployeeRepository employees = context.getBean(EmployeeRepository.class);
+            assertEquals(5, employees.count());
+            assertEquals("durable@company.com", employees.findById(savedId).orElseThrow().getEmail());
+        }
+    }
+
+    @Test
+    void durableProfile_dropsTheGlobalUniqueConstraintsOfOlderDatabases() {
+        try (ConfigurableApplicationContext context = start()) {
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            // as created by Hibernate for @Column(unique = true) before multi-tenancy
+            jdbc.execute("ALTER TABLE employees ADD CONSTRAINT UKJ9XGMD0YA5JMUS09O0B8PQRPB UNIQUE (email)");
+            jdbc.execute("ALTER TABLE departments ADD CONSTRAINT UKJ6CWKS7XECS5JOV19RO8GE3QK UNIQUE (name)");
+        }
+
+        try (ConfigurableApplicationContext context = start()) {
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            jdbc.update("INSERT INTO departments (tenant_id, name, min_staffing) VALUES ('acme', 'Engineering', 0)");
+            jdbc.update("INSERT INTO employees (tenant_id, name, email, is_manager, remaining_vacation_days) "
+                    + "VALUES ('acme', 'Acme John', 'john@company.com', FALSE, 30)");
+            assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM employees WHERE email = 'john@company.com'",
+                    Integer.class));
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(VacationApplication.class)
+                .profiles("durable")
+                .run("--vacation.h2.data-dir=" + dataDir.toAbsolutePath(), // must beat application-durable
+                        "--spring.main.web-application-type=none",
+                        "--spring.jpa.show-sql=false");
+    }
+}
@@ -0,0 +1,44 @@
+package com.eddie.vacation;
+
+import com.eddie.vacation.model.Department;
+import com.eddie.vacation.model.Employee;
+
+import java.util.UUID;
+
+/**
+ * Unsaved employees for tests against the shared database: every one gets a fresh email,
+ * so tests never trip over each other's unique constraints.
+ */
+public final class TestEmployees {
+
+    private TestEmployees() {
+    }
+
+    public static Employee employee(String name) {
+        Employee employee = new Employee();
+        employee.setName(name);
+        employee.setEmail(UUID.randomUUID() + "@company.com");
+        employee.setRemainingVacationDays(30);
+        return employee;
+    }
+
+    public static Employee employee(String name, int remainingDays) {
+        Employee employee = employee(name);
+        employee.setRemainingVacationDays(remainingDays);
+        return employee;
+    }
+
+    public static Employee inDepartment(String name, Department department) {
+        Employee employee = employee(name);
+        employee.setDepartment(department);
+        return employee;
+    }
+
+    // managers are the ones without a manager of their own
+    public static Employee reportingTo(String name, Employee reportsTo) {
+        Employee employee = employee(name);
+        employee.setManager(reportsTo == null);
+        employee.setReportsTo(reportsTo);
+        return employee;
+    }
+}
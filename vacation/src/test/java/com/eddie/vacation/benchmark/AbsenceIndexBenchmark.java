@@ -0,0 +1,89 @@
+package com.eddie.vacation.benchmark;
+
+import com.eddie.vacation.model.Employee;
+import com.eddie.vacation.model.VacationRequest;
+import com.eddie.vacation.repository.VacationRequestRepository;
+import com.eddie.vacation.service.AbsenceIndex;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.mockito.ArgumentMatchers.any;
+
+/**
+ * Latency of "who in this team is off on these days" against the in-memory absence index.
+ * Not a unit test, run with:
+ * mvn -Pbenchmark test-compile exec:java -Dbenchmark.class=com.eddie.vacation.benchmark.AbsenceIndexBenchmark
+ */
+public class AbsenceIndexBenchmark {
+
+    private static final int EMPLOYEES = Integer.getInteger("benchmark.employees", 20_000);
+    private static final int TEAM_SIZE = 40;
+    private static final int ROUNDS = 200_000;
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+        List<VacationRequest> approved = new ArrayList<>();
+        for (long id = 1; id <= EMPLOYEES; id++) {
+            for (int i = 0; i < 4; i++) { // four absences per employee over the next year
+                LocalDate start = today.plusDays(random.nextInt(365));
+                approved.add(request(id, start, start.plusDays(1 + random.nextInt(10))));
+            }
+        }
+        VacationRequestRepository repository = Mockito.mock(VacationRequestRepository.class);
+        Mockito.when(repository.findOverlappingApprovedRequests(any(), any())).thenReturn(approved);
+
+        long loadStart = System.nanoTime();
+        AbsenceIndex index = new AbsenceIndex(repository, 0);
+        index.run(null);
+        System.out.printf("loaded %d approved requests in %d ms%n", approved.size(),
+                (System.nanoTime() - loadStart) / 1_000_000);
+
+        List<List<Long>> teams = new ArrayList<>();
+        for (int t = 0; t < 100; t++) {
+            List<Long> team = new ArrayList<>();
+            for (int i = 0; i < TEAM_SIZE; i++) {
+                team.add(1L + random.nextInt(EMPLOYEES));
+            }
+            teams.add(team);
+        }
+
+        run("one day, whole company", index, today, 0, null, random);
+        run("one day, team of " + TEAM_SIZE, index, today, 0, teams, random);
+        run("one week, team of " + TEAM_SIZE, index, today, 6, teams, random);
+    }
+
+    private static void run(String name, AbsenceIndex index, LocalDate today, int days, List<List<Long>> teams,
+            Random random) {
+        long sink = 0;
+        for (int i = 0; i < ROUNDS / 10; i++) { // warm-up
+            sink += query(index, today, days, teams, random);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            sink += query(index, today, days, teams, random);
+        }
+        double micros = (System.nanoTime() - start) / 1_000.0 / ROUNDS;
+        System.out.printf("%-28s %8.2f us/query (%d hits)%n", name, micros, sink);
+    }
+
+    private static int query(AbsenceIndex index, LocalDate today, int days, List<List<Long>> teams, Random random) {
+        LocalDate day = today.plusDays(random.nextInt(300));
+        List<Long> team = teams == null ? null : teams.get(random.nextInt(teams.size()));
+        return index.absentBetween(day, day.plusDays(days), team).size();
+    }
+
+    private static VacationRequest request(Long authorId, LocalDate start, LocalDate end) {
+        Employee author = new Employee();
+        author.setId(authorId);
+        VacationRequest request = new VacationRequest();
+        request.setAuthor(author);
+        request.setVacationStartDate(start);
+        request.setVacationEndDate(end);
+        return request;
+    }
+}
@@ -0,0 +1,118 @@
+package com.eddie.vacation.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Committed-write throughput and restart time of the in-memory database (restart = replaying
+ * a SQL dump, as schema.sql does today) against the file-backed MVStore of the durable profile.
+ * Not a unit test, run with:
+ * mvn -Pbenchmark test-compile exec:java -Dbenchmark.class=com.eddie.vacation.benchmark.H2StorageBenchmark
+ */
+public class H2StorageBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 50_000);
+    private static final String TUNED = ";CACHE_SIZE=65536;WRITE_DELAY=100;MAX_COMPACT_TIME=2000;DB_CLOSE_ON_EXIT=FALSE";
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("h2-bench");
+        try {
+            System.out.printf("%d single-row committed inserts per mode%n%n", ROWS);
+            System.out.printf("%-26s %14s %14s %12s%n", "mode", "inserts/s", "restart ms", "file MB");
+            runMemory(dir);
+            runFile("file (h2 defaults)", "jdbc:h2:file:" + dir.resolve("defaults") + ";DB_CLOSE_ON_EXIT=FALSE",
+                    dir.resolve("defaults.mv.db"));
+            runFile("file (durable profile)", "jdbc:h2:file:" + dir.resolve("tuned") + TUNED,
+                    dir.resolve("tuned.mv.db"));
+        } finally {
+            try (Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static void runMemory(Path dir) throws SQLException, IOException {
+        String url = "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1";
+        Path dump = dir.resolve("dump.sql");
+        double insertsPerSecond;
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            insertsPerSecond = insertRows(connection);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SCRIPT TO '" + dump + "'");
+                statement.execute("SHUTDOWN");
+            }
+        }
+
+        long start = System.nanoTime();
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+                Statement statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM '" + dump + "'");
+            firstQuery(connection);
+            long restartMillis = (System.nanoTime() - start) / 1_000_000;
+            statement.execute("SHUTDOWN");
+            print("mem (dump replay)", insertsPerSecond, restartMillis, Files.size(dump));
+        }
+    }
+
+    private static void runFile(String name, String url, Path file) throws SQLException, IOException {
+        double insertsPerSecond;
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            insertsPerSecond = insertRows(connection);
+        } // last connection closes and compacts the store
+
+        long start = System.nanoTime();
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            firstQuery(connection);
+            long restartMillis = (System.nanoTime() - start) / 1_000_000;
+            print(name, insertsPerSecond, restartMillis, Files.size(file));
+        }
+    }
+
+    private static double insertRows(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE vacation_requests (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "author_id BIGINT NOT NULL, status VARCHAR(20) NOT NULL, "
+                    + "vacation_start_date DATE NOT NULL, vacation_end_date DATE NOT NULL)");
+            statement.execute("CREATE INDEX idx_status_author ON vacation_requests(status, author_id)");
+        }
+
+        connection.setAutoCommit(true); // one commit per request, like the API
+        LocalDate base = LocalDate.of(2026, 1, 1);
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO vacation_requests "
+                + "(author_id, status, vacation_start_date, vacation_end_date) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                insert.setLong(1, i % 500);
+                insert.setString(2, i % 3 == 0 ? "pending" : "approved");
+                insert.setObject(3, base.plusDays(i % 365));
+                insert.setObject(4, base.plusDays(i % 365 + 4));
+                insert.executeUpdate();
+            }
+        }
+        return ROWS / ((System.nanoTime() - start) / 1e9);
+    }
+
+    // the app is ready once it can answer the manager dashboard
+    private static void firstQuery(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(
+                        "SELECT COUNT(*) FROM vacation_requests WHERE status = 'pending' AND author_id = 7")) {
+            rs.next();
+        }
+    }
+
+    private static void print(String name, double insertsPerSecond, long restartMillis, long bytes) {
+        System.out.printf("%-26s %14.0f %14d %12.1f%n", name, insertsPerSecond, restartMillis,
+                bytes / (1024.0 * 1024.0));
+    }
+}
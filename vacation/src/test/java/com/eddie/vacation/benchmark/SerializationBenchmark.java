@@ -0,0 +1,107 @@
+package com.eddie.vacation.benchmark;
+
+import com.eddie.vacation.model.Employee;
+import com.eddie.vacation.model.VacationRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bytes on the wire and serialization CPU for a large manager list payload.
+ * Not a unit test, run with:
+ * mvn -Pbenchmark test-compile exec:java -Dbenchmark.class=com.eddie.vacation.benchmark.SerializationBenchmark
+ */
+public class SerializationBenchmark {
+
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 5_000);
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 200;
+
+    public static void main(String[] args) throws IOException {
+        List<VacationRequest> payload = payload(REQUESTS);
+
+        System.out.printf("%d requests per payload, %d measured rounds%n%n", REQUESTS, MEASURED_ROUNDS);
+        System.out.printf("%-22s %12s %12s %14s%n", "format", "bytes", "gzip bytes", "us/serialize");
+        run("json (reflection)", mapper(new ObjectMapper(), false), payload);
+        run("json (blackbird)", mapper(new ObjectMapper(), true), payload);
+        run("smile (blackbird)", mapper(new ObjectMapper(new SmileFactory()), true), payload);
+        run("cbor (blackbird)", mapper(new ObjectMapper(new CBORFactory()), true), payload);
+    }
+
+    private static void run(String name, ObjectMapper mapper, List<VacationRequest> payload) throws IOException {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            mapper.writeValueAsBytes(payload);
+        }
+
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            sink += mapper.writeValueAsBytes(payload).length;
+        }
+        long micros = (System.nanoTime() - start) / 1_000 / MEASURED_ROUNDS;
+
+        byte[] bytes = mapper.writeValueAsBytes(payload);
+        System.out.printf("%-22s %12d %12d %14d%n", name, bytes.length, gzip(bytes).length, micros);
+        if (sink == 0) {
+            throw new IllegalStateException("nothing serialized"); // keeps the loop from being optimized away
+        }
+    }
+
+    private static ObjectMapper mapper(ObjectMapper mapper, boolean blackbird) {
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS); // same shape as the API
+        if (blackbird) {
+            mapper.registerModule(new BlackbirdModule());
+        }
+        return mapper;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static List<VacationRequest> payload(int size) {
+        Random random = new Random(42);
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 1; i <= 200; i++) {
+            Employee employee = new Employee();
+            employee.setId((long) i);
+            employee.setName("Employee " + i);
+            employee.setEmail("employee" + i + "@company.com");
+            employee.setManager(i % 10 == 0);
+            employee.setRemainingVacationDays(random.nextInt(31));
+            employees.add(employee);
+        }
+
+        List<VacationRequest> requests = new ArrayList<>(size);
+        LocalDate base = LocalDate.of(2026, 1, 1);
+        for (int i = 1; i <= size; i++) {
+            VacationRequest request = new VacationRequest();
+            request.setId((long) i);
+            request.setAuthor(employees.get(random.nextInt(employees.size())));
+            request.setResolvedBy(employees.get(10 * (1 + random.nextInt(20)) - 1));
+            request.setStatus(random.nextBoolean() ? "approved" : "pending");
+            request.setRequestCreatedAt(LocalDateTime.of(2025, 12, 1, 9, 0).plusMinutes(i));
+            request.setVacationStartDate(base.plusDays(random.nextInt(365)));
+            request.setVacationEndDate(request.getVacationStartDate().plusDays(1 + random.nextInt(10)));
+            requests.add(request);
+        }
+        return requests;
+    }
+}
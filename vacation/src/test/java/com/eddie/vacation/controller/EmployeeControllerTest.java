@@ -1,31 +1,44 @@
 package com.eddie.vacation.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.eddie.vacation.dto.SubmissionStatusDto;
 import com.eddie.vacation.dto.VacationRequestDto;
 import com.eddie.vacation.exception.EmployeeNotFoundException;
 import com.eddie.vacation.exception.InsufficientVacationDaysException;
 import com.eddie.vacation.model.Employee;
 import com.eddie.vacation.model.VacationRequest;
+import com.eddie.vacation.service.CalendarFeeds;
+import com.eddie.vacation.service.IdempotencyStore;
+import com.eddie.vacation.service.ResourceVersions;
+import com.eddie.vacation.service.VacationRequestIntake;
 import com.eddie.vacation.service.VacationService;
+import com.eddie.vacation.service.WriteAdmissionControl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = EmployeeController.class)
+@Import({ ResourceVersions.class, WriteAdmissionControl.class, IdempotencyStore.class })
 public class EmployeeControllerTest {
 
     @Autowired
@@ -34,9 +47,18 @@ public class EmployeeControllerTest {
     @MockBean
     private VacationService vacationService;
 
+    @MockBean
+    private VacationRequestIntake requestIntake;
+
+    @MockBean
+    private CalendarFeeds calendarFeeds;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ResourceVersions resourceVersions;
+
     private Employee employee;
     private VacationRequest vacationRequest;
     private VacationRequestDto validRequestDto;
@@ -112,7 +134,9 @@ public class EmployeeControllerTest {
                 .content(objectMapper.writeValueAsString(validRequestDto)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status").value("pending"))
-                .andExpect(jsonPath("$.author.id").value(1));
+                .andExpect(jsonPath("$.author.id").value(1))
+                .andExpect(jsonPath("$.durationInDays").doesNotExist()) // calendar days, not what is deducted
+                .andExpect(jsonPath("$.calendarDays").doesNotExist());
     }
 
     @Test
@@ -156,6 +180,64 @@ public class EmployeeControllerTest {
                 .andExpect(jsonPath("$.message").value("End date must be after start date"));
     }
 
+    @Test
+    void createRequest_sameIdempotencyKey_replaysFirstResponse() throws Exception {
+        Mockito.when(vacationService.createRequest(any(VacationRequestDto.class)))
+                .thenReturn(vacationRequest);
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/employee/1/requests")
+                    .header(IdempotencyStore.HEADER, "create-once")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(validRequestDto)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(1));
+        }
+
+        verify(vacationService, times(1)).createRequest(any(VacationRequestDto.class));
+    }
+
+    @Test
+    void createRequest_asyncIntake_returns202WithStatusUrl() throws Exception {
+        SubmissionStatusDto queued = new SubmissionStatusDto("t-1", 1L, VacationRequestIntake.QUEUED, null, null);
+        Mockito.when(requestIntake.isEnabled()).thenReturn(true);
+        Mockito.when(requestIntake.submit(any(VacationRequestDto.class))).thenReturn(queued);
+        Mockito.when(requestIntake.findSubmission("t-1")).thenReturn(Optional.of(
+                new SubmissionStatusDto("t-1", 1L, VacationRequestIntake.CREATED, 7L, null)));
+
+        mockMvc.perform(post("/api/employee/1/requests")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validRequestDto)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/api/employee/1/requests/submissions/t-1"))
+                .andExpect(jsonPath("$.status").value("queued"));
+
+        mockMvc.perform(get("/api/employee/1/requests/submissions/t-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("created"))
+                .andExpect(jsonPath("$.requestId").value(7));
+        mockMvc.perform(get("/api/employee/2/requests/submissions/t-1"))
+                .andExpect(status().isNotFound());
+        verify(vacationService, never()).createRequest(any(VacationRequestDto.class));
+    }
+
+    @Test
+    void getCalendarFeed_servesCachedBytes_and304ForSameETag() throws Exception {
+        byte[] body = "BEGIN:VCALENDAR\r\nEND:VCALENDAR\r\n".getBytes();
+        Mockito.when(calendarFeeds.employeeFeed(1L)).thenReturn(new CalendarFeeds.Feed(body, "\"ics-1\""));
+        Mockito.when(calendarFeeds.employeeFeed(999L)).thenThrow(new EmployeeNotFoundException("Employee not found"));
+
+        mockMvc.perform(get("/api/employee/1/calendar.ics"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/calendar;charset=UTF-8"))
+                .andExpect(content().bytes(body));
+        mockMvc.perform(get("/api/employee/1/calendar.ics").header(HttpHeaders.IF_NONE_MATCH, "\"ics-1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/employee/999/calendar.ics"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void getEmployeeRequests_withStatusFilter() throws Exception {
         Mockito.when(vacationService.getRequestsByEmployeeAndStatus(1L, "pending"))
@@ -166,4 +248,46 @@ public class EmployeeControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].status").value("pending"));
     }
+
+    @Test
+    void getEmployeeRequests_includeArchived_readsHistory() throws Exception {
+        Mockito.when(vacationService.getRequestHistoryByEmployee(1L, null))
+                .thenReturn(List.of(vacationRequest));
+
+        mockMvc.perform(get("/api/employee/1/requests")
+                .param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1));
+
+        verify(vacationService, times(0)).getRequestsByEmployee(anyLong());
+    }
+
+    @Test
+    void getEmployeeRequests_matchingETag_returns304WithoutQuerying() throws Exception {
+        Mockito.when(vacationService.getRequestsByEmployee(1L)).thenReturn(List.of(vacationRequest));
+
+        String etag = mockMvc.perform(get("/api/employee/1/requests"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/employee/1/requests").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(vacationService, times(1)).getRequestsByEmployee(1L);
+    }
+
+    @Test
+    void getRemainingVacationDays_afterChange_returnsFreshBody() throws Exception {
+        Mockito.when(vacationService.getRemainingVacationDays(1L)).thenReturn(30);
+
+        String etag = mockMvc.perform(get("/api/employee/1/remaining-days"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        resourceVersions.bumpEmployee(1L);
+
+        mockMvc.perform(get("/api/employee/1/remaining-days").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(content().string("30"));
+    }
 }
\ No newline at end of file
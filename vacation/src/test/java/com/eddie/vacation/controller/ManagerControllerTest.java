@@ -1,31 +1,48 @@
 package com.eddie.vacation.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.eddie.vacation.dto.RequestFieldSelection;
 import com.eddie.vacation.dto.RequestStatusUpdateDto;
+import com.eddie.vacation.dto.UsageReportDto;
 import com.eddie.vacation.exception.*;
 import com.eddie.vacation.model.Employee;
 import com.eddie.vacation.model.VacationRequest;
 import com.eddie.vacation.repository.EmployeeRepository;
+import com.eddie.vacation.service.CalendarFeeds;
+import com.eddie.vacation.service.IdempotencyStore;
+import com.eddie.vacation.service.ResourceVersions;
+import com.eddie.vacation.service.UsageAnalytics;
 import com.eddie.vacation.service.VacationService;
+import com.eddie.vacation.service.WriteAdmissionControl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ManagerController.class)
+@Import({ ResourceVersions.class, WriteAdmissionControl.class, IdempotencyStore.class })
 public class ManagerControllerTest {
 
     @Autowired
@@ -37,6 +54,12 @@ public class ManagerControllerTest {
     @MockBean
     private EmployeeRepository employeeRepository;
 
+    @MockBean
+    private UsageAnalytics usageAnalytics;
+
+    @MockBean
+    private CalendarFeeds calendarFeeds;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -57,6 +80,30 @@ public class ManagerControllerTest {
         manager.setManager(true);
     }
 
+    @Test
+    void getAllRequests_withFields_returnsProjection() throws Exception {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("id", 1L);
+        view.put("status", "pending");
+        when(vacationService.getRequestViews(eq("pending"), any(RequestFieldSelection.class)))
+                .thenReturn(List.of(view));
+
+        mockMvc.perform(get("/api/manager/requests")
+                .param("status", "PENDING")
+                .param("fields", "status,id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].author").doesNotExist());
+        verify(vacationService, never()).getRequestsByStatus(any());
+    }
+
+    @Test
+    void getAllRequests_unknownField_returns400() throws Exception {
+        mockMvc.perform(get("/api/manager/requests").param("fields", "id,salary"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("salary")));
+    }
+
     @Test
     void getManagerRequests_success() throws Exception {
         when(vacationService.getRequestsByStatus("pending"))
@@ -174,4 +221,83 @@ public class ManagerControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1));
     }
+
+    @Test
+    void getAbsences_teamFilter_returnsIdsPerDay() throws Exception {
+        when(vacationService.getAbsences(LocalDate.of(2026, 12, 1), LocalDate.of(2026, 12, 3), List.of(1L, 3L)))
+                .thenReturn(Map.of(LocalDate.of(2026, 12, 2), List.of(3L)));
+
+        mockMvc.perform(get("/api/manager/absences")
+                .param("startDate", "2026-12-01")
+                .param("endDate", "2026-12-03")
+                .param("employeeIds", "1", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['2026-12-02'][0]").value(3));
+    }
+
+    @Test
+    void getAllRequests_withFields_matchingETagReturns304() throws Exception {
+        when(vacationService.getRequestViews(eq("pending"), any(RequestFieldSelection.class)))
+                .thenReturn(List.of(Map.of("id", 1L)));
+
+        String etag = mockMvc.perform(get("/api/manager/requests")
+                        .param("status", "pending")
+                        .param("fields", "id,vacationStartDate,vacationEndDate,status"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/manager/requests")
+                        .param("status", "pending")
+                        .param("fields", "id,vacationStartDate,vacationEndDate,status")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        verify(vacationService, times(1)).getRequestViews(eq("pending"), any(RequestFieldSelection.class));
+    }
+
+    @Test
+    void getPendingRequests_matchingETag_returns304WithoutQuerying() throws Exception {
+        when(vacationService.getRequestsForManager(2L)).thenReturn(List.of(vacationRequest));
+
+        String etag = mockMvc.perform(get("/api/manager/2/requests"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/manager/2/requests").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        verify(vacationService, times(1)).getRequestsForManager(2L);
+    }
+
+    @Test
+    void getUsage_returnsYearReport_andRejectsBadYear() throws Exception {
+        UsageReportDto.ManagerUsage usage = new UsageReportDto.ManagerUsage();
+        usage.setManagerId(2L);
+        usage.setApproved(3);
+        usage.setApprovalRate(0.75);
+        UsageReportDto report = new UsageReportDto();
+        report.setFrom(LocalDate.of(2025, 1, 1));
+        report.getManagers().add(usage);
+        when(usageAnalytics.getYearReport(2025)).thenReturn(report);
+        when(usageAnalytics.getYearReport(1066)).thenThrow(new IllegalArgumentException("Year must be between 1970 and 9999"));
+
+        mockMvc.perform(get("/api/manager/analytics/usage").param("year", "2025"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.from").value("2025-01-01"))
+                .andExpect(jsonPath("$.managers[0].approvalRate").value(0.75));
+        mockMvc.perform(get("/api/manager/analytics/usage").param("year", "1066"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getManagerRequests_smileAccepted_returnsSmile() throws Exception {
+        when(vacationService.getAllRequests()).thenReturn(List.of(vacationRequest));
+
+        mockMvc.perform(get("/api/manager/requests").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andExpect(header().string(HttpHeaders.ETAG, containsString("-smile-")));
+
+        mockMvc.perform(get("/api/manager/requests"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.eddie.vacation.grpc;
+
+import com.eddie.vacation.dto.VacationRequestDto;
+import com.eddie.vacation.exception.EmployeeNotFoundException;
+import com.eddie.vacation.exception.TooManyRequestsException;
+import com.eddie.vacation.exception.UnauthorizedException;
+import com.eddie.vacation.model.Employee;
+import com.eddie.vacation.model.VacationRequest;
+import com.eddie.vacation.service.VacationService;
+import com.eddie.vacation.service.WriteAdmissionControl;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class VacationGrpcServiceTest {
+
+    private final VacationService vacationService = mock(VacationService.class);
+    private final WriteAdmissionControl admissionControl = mock(WriteAdmissionControl.class);
+
+    private Server server;
+    private ManagedChannel channel;
+    private VacationApiGrpc.VacationApiBlockingStub stub;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(admissionControl.execute(anyString(), any())).thenAnswer(call -> ((Supplier<?>) call.getArgument(1)).get());
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name).directExecutor()
+                .addService(new VacationGrpcService(vacationService, admissionControl))
+                .build().start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+        stub = VacationApiGrpc.newBlockingStub(channel);
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void batchGetRemainingDays_answersInCallerOrder_andListsUnknownIds() {
+        when(vacationService.getRemainingVacationDays(List.of(3L, 1L, 99L))).thenReturn(Map.of(1L, 20, 3L, 7));
+
+        BatchRemainingDaysReply reply = stub.batchGetRemainingDays(BatchRemainingDaysRequest.newBuilder()
+                .addEmployeeIds(3L).addEmployeeIds(1L).addEmployeeIds(99L).build());
+
+        assertEquals(2, reply.getRemainingDaysCount());
+        assertEquals(3L, reply.getRemainingDays(0).getEmployeeId());
+        assertEquals(7, reply.getRemainingDays(0).getRemainingDays());
+        assertEquals(20, reply.getRemainingDays(1).getRemainingDays());
+        assertEquals(List.of(99L), reply.getNotFoundIdsList());
+    }
+
+    @Test
+    void listRequests_streamsEveryRequest() {
+        List<VacationRequest> requests = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            requests.add(request(id, "pending"));
+        }
+        when(vacationService.getRequestsByEmployeeAndStatus(5L, "pending")).thenReturn(requests);
+
+        List<VacationRequestMessage> received = new ArrayList<>();
+        stub.listRequests(ListRequestsRequest.newBuilder().setEmployeeId(5L).setStatus("PENDING").build())
+                .forEachRemaining(received::add);
+
+        assertEquals(500, received.size());
+        assertEquals(500L, received.get(499).getId());
+        assertEquals(LocalDate.of(2026, 3, 2).toEpochDay(), received.get(0).getStartEpochDay());
+        assertEquals(0L, received.get(0).getResolvedById()); // unset while pending
+    }
+
+    @Test
+    void serviceExceptions_mapToStatusCodes() {
+        when(vacationService.getRemainingVacationDays(42L)).thenThrow(new EmployeeNotFoundException("Employee not found with ID: 42"));
+        when(vacationService.updateRequestStatus(eq(7L), any())).thenThrow(new UnauthorizedException("Not your report"));
+        when(admissionControl.execute(eq("employee:8"), any())).thenThrow(new TooManyRequestsException("Slow down", 3));
+
+        StatusRuntimeException notFound = assertThrows(StatusRuntimeException.class,
+                () -> stub.getRemainingDays(RemainingDaysRequest.newBuilder().setEmployeeId(42L).build()));
+        assertEquals(Status.Code.NOT_FOUND, notFound.getStatus().getCode());
+
+        StatusRuntimeException denied = assertThrows(StatusRuntimeException.class, () -> stub.updateRequestStatus(
+                UpdateStatusRequest.newBuilder().setRequestId(7L).setManagerId(2L).setStatus("approved").build()));
+        assertEquals(Status.Code.PERMISSION_DENIED, denied.getStatus().getCode());
+
+        StatusRuntimeException limited = assertThrows(StatusRuntimeException.class, () -> stub.createRequest(
+                CreateRequestRequest.newBuilder().setEmployeeId(8L).setStartEpochDay(0).setEndEpochDay(1).build()));
+        assertEquals(Status.Code.RESOURCE_EXHAUSTED, limited.getStatus().getCode());
+        assertEquals("3", limited.getTrailers().get(VacationGrpcService.RETRY_AFTER));
+    }
+
+    @Test
+    void createRequest_goesThroughAdmissionControl() {
+        when(vacationService.createRequest(any())).thenReturn(request(11L, "pending"));
+        LocalDate start = LocalDate.of(2026, 3, 2);
+
+        VacationRequestMessage created = stub.createRequest(CreateRequestRequest.newBuilder()
+                .setEmployeeId(5L).setStartEpochDay(start.toEpochDay()).setEndEpochDay(start.plusDays(4).toEpochDay()).build());
+
+        assertEquals(11L, created.getId());
+        ArgumentCaptor<VacationRequestDto> dto = ArgumentCaptor.forClass(VacationRequestDto.class);
+        verify(vacationService).createRequest(dto.capture());
+        assertEquals(5L, dto.getValue().getAuthorId());
+        assertEquals(start.plusDays(4), dto.getValue().getVacationEndDate());
+        verify(admissionControl).execute(eq("employee:5"), any());
+    }
+
+    private static VacationRequest request(long id, String status) {
+        Employee author = new Employee();
+        author.setId(5L);
+        VacationRequest request = new VacationRequest();
+        request.setId(id);
+        request.setAuthor(author);
+        request.setStatus(status);
+        request.setRequestCreatedAt(LocalDateTime.of(2026, 2, 1, 9, 0));
+        request.setVacationStartDate(LocalDate.of(2026, 3, 2));
+        request.setVacationEndDate(LocalDate.of(2026, 3, 6));
+        return request;
+    }
+}
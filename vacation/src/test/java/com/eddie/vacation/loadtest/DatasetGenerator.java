@@ -0,0 +1,247 @@
+package com.eddie.vacation.loadtest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic large dataset for load tests: the same seed, sizes and reference date always
+ * produce the same departments, employees, reporting lines and requests, with the same ids.
+ * Departments of ~50 people have one manager per eight employees; request start dates follow
+ * a seasonal curve (December/January and mid-year peaks), most absences are short, and the
+ * status depends on where the request sits relative to {@code today}. Requests of one
+ * employee never overlap, like those created through the API.
+ */
+public class DatasetGenerator {
+
+    // explicit ids above the demo rows of durable-seed.sql, so the runner knows them without reading back
+    static final long FIRST_ID = 1_000;
+
+    private static final int DEPARTMENT_SIZE = 50;
+    private static final int REPORTS_PER_MANAGER = 8;
+    // relative weight of a request starting in January..December
+    private static final int[] MONTH_WEIGHTS = { 14, 6, 6, 10, 8, 9, 13, 11, 6, 7, 6, 16 };
+    private static final int BATCH = 5_000;
+
+    public record Department(long id, String name, int minStaffing) {
+    }
+
+    public record Employee(long id, String name, String email, boolean manager, int remainingDays,
+            long departmentId, Long reportsTo) {
+    }
+
+    public record Request(long id, long authorId, String status, Long resolvedById, LocalDateTime createdAt,
+            LocalDateTime resolvedAt, LocalDate start, LocalDate end) {
+    }
+
+    public record Dataset(List<Department> departments, List<Employee> employees, List<Request> requests) {
+    }
+
+    private final long seed;
+    private final int employeeCount;
+    private final int requestsPerEmployee;
+    private final LocalDate today;
+
+    public DatasetGenerator(long seed, int employeeCount, int requestsPerEmployee, LocalDate today) {
+        if (employeeCount < 2 * (REPORTS_PER_MANAGER + 1) || requestsPerEmployee < 0) {
+            throw new IllegalArgumentException("Need at least " + 2 * (REPORTS_PER_MANAGER + 1) + " employees");
+        }
+        this.seed = seed;
+        this.employeeCount = employeeCount;
+        this.requestsPerEmployee = requestsPerEmployee;
+        this.today = today;
+    }
+
+    // identifies the generated data, a stored dataset with another key is regenerated
+    public String key() {
+        return "s" + seed + "-e" + employeeCount + "-r" + requestsPerEmployee + "-" + today;
+    }
+
+    public Dataset generate() {
+        Random random = new Random(seed);
+        List<Department> departments = new ArrayList<>();
+        List<Employee> employees = new ArrayList<>(employeeCount);
+        List<Request> requests = new ArrayList<>(employeeCount * requestsPerEmployee);
+
+        long nextRequestId = FIRST_ID;
+        int departmentCount = (employeeCount + DEPARTMENT_SIZE - 1) / DEPARTMENT_SIZE;
+        for (int d = 0; d < departmentCount; d++) {
+            int size = Math.min(DEPARTMENT_SIZE, employeeCount - d * DEPARTMENT_SIZE);
+            long departmentId = FIRST_ID + d;
+            // a third of the teams have no staffing floor, the rest need 40-70% present
+            int minStaffing = random.nextInt(3) == 0 ? 0 : size * (40 + random.nextInt(31)) / 100;
+            departments.add(new Department(departmentId, "Load Department " + d, minStaffing));
+
+            Long manager = null;
+            for (int i = 0; i < size; i++) {
+                long id = FIRST_ID + (long) d * DEPARTMENT_SIZE + i;
+                boolean isManager = i % (REPORTS_PER_MANAGER + 1) == 0;
+                if (isManager) {
+                    manager = id;
+                }
+                List<Request> own = requestsFor(random, id, manager, isManager, nextRequestId);
+                nextRequestId += own.size();
+                requests.addAll(own);
+
+                int approvedDays = own.stream().filter(r -> "approved".equals(r.status()))
+                        .mapToInt(r -> (int) ChronoUnit.DAYS.between(r.start(), r.end()) + 1).sum();
+                employees.add(new Employee(id, "Load Employee " + id, "load-" + id + "@company.com", isManager,
+                        Math.max(5, 30 - approvedDays / 2), departmentId, isManager ? null : manager));
+            }
+        }
+        return new Dataset(departments, employees, requests);
+    }
+
+    // spread over the past year and the next six months, sorted, overlaps dropped
+    private List<Request> requestsFor(Random random, long authorId, Long manager, boolean isManager, long firstId) {
+        int count = requestsPerEmployee == 0 ? 0 : requestsPerEmployee / 2 + random.nextInt(requestsPerEmployee + 1);
+        List<LocalDate[]> periods = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDate start = seasonalStart(random);
+            periods.add(new LocalDate[] { start, start.plusDays(duration(random) - 1) });
+        }
+        periods.sort(Comparator.comparing(p -> p[0]));
+
+        List<Request> requests = new ArrayList<>(count);
+        LocalDate lastEnd = LocalDate.MIN;
+        for (LocalDate[] period : periods) {
+            if (!period[0].isAfter(lastEnd)) {
+                continue;
+            }
+            lastEnd = period[1];
+            String status = status(random, period[0], period[1]);
+            Long resolvedBy = "pending".equals(status) ? null : isManager ? otherManager(authorId) : manager;
+            LocalDateTime createdAt = period[0].minusDays(7 + random.nextInt(54)).atTime(9, 0)
+                    .plusMinutes(random.nextInt(8 * 60));
+            // decided within two weeks, time to decision feeds the usage analytics
+            LocalDateTime resolvedAt = resolvedBy == null ? null : createdAt.plusMinutes(30 + random.nextInt(14 * 24 * 60));
+            requests.add(new Request(firstId + requests.size(), authorId, status, resolvedBy, createdAt,
+                    resolvedAt, period[0], period[1]));
+        }
+        return requests;
+    }
+
+    // managers have no reporting line in this dataset, one of the first two managers resolves theirs
+    private static long otherManager(long managerId) {
+        return managerId == FIRST_ID ? FIRST_ID + REPORTS_PER_MANAGER + 1 : FIRST_ID;
+    }
+
+    private LocalDate seasonalStart(Random random) {
+        LocalDate windowStart = today.minusDays(365);
+        while (true) {
+            LocalDate candidate = windowStart.plusDays(random.nextInt(365 + 180));
+            // rejection sampling against the month curve
+            if (random.nextInt(16) < MONTH_WEIGHTS[candidate.getMonthValue() - 1]) {
+                return candidate;
+            }
+        }
+    }
+
+    // mostly long weekends and single weeks, occasionally two or three weeks
+    private static int duration(Random random) {
+        int roll = random.nextInt(100);
+        if (roll < 50) {
+            return 2 + random.nextInt(3);
+        }
+        if (roll < 85) {
+            return 5 + random.nextInt(5);
+        }
+        return 10 + random.nextInt(12);
+    }
+
+    private String status(Random random, LocalDate start, LocalDate end) {
+        int roll = random.nextInt(100);
+        if (end.isBefore(today)) {
+            return roll < 85 ? "approved" : "rejected";
+        }
+        if (!start.isAfter(today)) {
+            return "approved"; // currently away
+        }
+        return roll < 40 ? "pending" : roll < 90 ? "approved" : "rejected";
+    }
+
+    /**
+     * Inserts the dataset with batched statements and moves the identity columns past it.
+     */
+    public static void write(Dataset dataset, DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO departments (id, name, min_staffing) VALUES (?, ?, ?)")) {
+                int n = 0;
+                for (Department d : dataset.departments()) {
+                    insert.setLong(1, d.id());
+                    insert.setString(2, d.name());
+                    insert.setInt(3, d.minStaffing());
+                    flush(insert, connection, ++n);
+                }
+                insert.executeBatch();
+            }
+            // managers first, reporting lines point backwards in id order
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO employees "
+                    + "(id, name, email, is_manager, remaining_vacation_days, department_id, manager_id) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+                int n = 0;
+                for (Employee e : dataset.employees()) {
+                    insert.setLong(1, e.id());
+                    insert.setString(2, e.name());
+                    insert.setString(3, e.email());
+                    insert.setBoolean(4, e.manager());
+                    insert.setInt(5, e.remainingDays());
+                    insert.setLong(6, e.departmentId());
+                    insert.setObject(7, e.reportsTo());
+                    flush(insert, connection, ++n);
+                }
+                insert.executeBatch();
+            }
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO vacation_requests "
+                    + "(id, author_id, status, resolved_by_id, request_created_at, resolved_at, "
+                    + "vacation_start_date, vacation_end_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+                int n = 0;
+                for (Request r : dataset.requests()) {
+                    insert.setLong(1, r.id());
+                    insert.setLong(2, r.authorId());
+                    insert.setString(3, r.status());
+                    insert.setObject(4, r.resolvedById());
+                    insert.setTimestamp(5, Timestamp.valueOf(r.createdAt()));
+                    insert.setTimestamp(6, r.resolvedAt() == null ? null : Timestamp.valueOf(r.resolvedAt()));
+                    insert.setDate(7, Date.valueOf(r.start()));
+                    insert.setDate(8, Date.valueOf(r.end()));
+                    flush(insert, connection, ++n);
+                }
+                insert.executeBatch();
+            }
+            try (Statement statement = connection.createStatement()) {
+                for (String table : List.of("departments", "employees", "vacation_requests")) {
+                    long next;
+                    try (ResultSet max = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+                        max.next();
+                        next = max.getLong(1);
+                    }
+                    statement.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+                }
+            }
+            connection.commit();
+        }
+    }
+
+    private static void flush(PreparedStatement insert, Connection connection, int rows) throws SQLException {
+        insert.addBatch();
+        if (rows % BATCH == 0) {
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+}
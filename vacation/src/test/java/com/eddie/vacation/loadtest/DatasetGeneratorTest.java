@@ -0,0 +1,62 @@
+package com.eddie.vacation.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatasetGeneratorTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 6, 1);
+
+    @Test
+    void generate_sameParameters_sameDataset() {
+        DatasetGenerator.Dataset first = new DatasetGenerator(7, 500, 6, TODAY).generate();
+        DatasetGenerator.Dataset second = new DatasetGenerator(7, 500, 6, TODAY).generate();
+
+        assertEquals(first, second);
+        assertNotEquals(first.requests(), new DatasetGenerator(8, 500, 6, TODAY).generate().requests());
+        assertEquals(500, first.employees().size());
+        assertEquals(10, first.departments().size());
+    }
+
+    @Test
+    void generate_requestsLookLikeApiData() {
+        DatasetGenerator.Dataset dataset = new DatasetGenerator(42, 300, 10, TODAY).generate();
+        Map<Long, DatasetGenerator.Employee> employees = dataset.employees().stream()
+                .collect(Collectors.toMap(DatasetGenerator.Employee::id, e -> e));
+
+        Map<Long, List<DatasetGenerator.Request>> byAuthor = dataset.requests().stream()
+                .collect(Collectors.groupingBy(DatasetGenerator.Request::authorId));
+        for (List<DatasetGenerator.Request> own : byAuthor.values()) {
+            List<DatasetGenerator.Request> sorted = own.stream()
+                    .sorted(Comparator.comparing(DatasetGenerator.Request::start)).toList();
+            for (int i = 1; i < sorted.size(); i++) {
+                assertTrue(sorted.get(i).start().isAfter(sorted.get(i - 1).end()), "requests overlap");
+            }
+        }
+        for (DatasetGenerator.Request request : dataset.requests()) {
+            assertFalse(request.end().isBefore(request.start()));
+            if (request.end().isBefore(TODAY)) {
+                assertNotEquals("pending", request.status()); // the past is decided
+            }
+            if (request.resolvedById() != null) {
+                assertTrue(employees.get(request.resolvedById()).manager());
+                assertNotEquals(request.authorId(), request.resolvedById());
+            }
+        }
+        for (DatasetGenerator.Employee employee : dataset.employees()) {
+            if (employee.reportsTo() != null) {
+                DatasetGenerator.Employee manager = employees.get(employee.reportsTo());
+                assertTrue(manager.manager());
+                assertEquals(employee.departmentId(), manager.departmentId());
+            }
+        }
+        assertTrue(dataset.requests().stream().anyMatch(r -> "pending".equals(r.status())));
+    }
+}
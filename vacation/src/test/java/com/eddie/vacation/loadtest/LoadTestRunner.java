@@ -0,0 +1,388 @@
+package com.eddie.vacation.loadtest;
+
+import com.eddie.vacation.VacationApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Load-test suite against the booted application on a generated dataset (see DatasetGenerator).
+ * The dataset is seeded once into a durable-profile H2 file and kept as a pristine copy, every
+ * run starts from that copy, so runs with the same parameters see the same data. Each scenario
+ * runs closed-loop with a fixed number of concurrent clients, a warm-up and a measured window,
+ * and reports throughput, p50/p95/p99/max latency and status classes; results are also appended
+ * to target/loadtest/results.csv for comparison between releases.
+ * Not a unit test, run with:
+ * mvn -Ploadtest test-compile exec:java [-Dloadtest.employees=20000 -Dloadtest.scenarios=employee.requests,mixed]
+ */
+public class LoadTestRunner {
+
+    private static final long SEED = Long.getLong("loadtest.seed", 42);
+    private static final int EMPLOYEES = Integer.getInteger("loadtest.employees", 5_000);
+    private static final int REQUESTS_PER_EMPLOYEE = Integer.getInteger("loadtest.requests-per-employee", 8);
+    private static final LocalDate TODAY = LocalDate.parse(System.getProperty("loadtest.today", LocalDate.now().toString()));
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 32);
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("loadtest.warmup-seconds", 5));
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("loadtest.duration-seconds", 30));
+    private static final String SCENARIOS = System.getProperty("loadtest.scenarios", "all");
+    private static final Path WORK_DIR = Paths.get(System.getProperty("loadtest.dir", "target/loadtest"));
+    // extra application arguments, e.g. "--vacation.admission.max-concurrent-writes=64"
+    private static final String APP_ARGS = System.getProperty("loadtest.app-args", "");
+
+    private static final String CALENDAR_FIELDS = "id,vacationStartDate,vacationEndDate,status";
+
+    public static void main(String[] args) throws Exception {
+        DatasetGenerator generator = new DatasetGenerator(SEED, EMPLOYEES, REQUESTS_PER_EMPLOYEE, TODAY);
+        DatasetGenerator.Dataset dataset = generator.generate();
+        Path datasetDir = WORK_DIR.resolve(generator.key());
+        Path pristine = datasetDir.resolve("pristine");
+        Path run = datasetDir.resolve("run");
+
+        if (!Files.exists(datasetDir.resolve("seeded"))) { // marker, a half-written seed is redone
+            long started = System.nanoTime();
+            deleteRecursively(datasetDir);
+            try (ConfigurableApplicationContext context = start(pristine, false)) {
+                DatasetGenerator.write(dataset, context.getBean(DataSource.class));
+            }
+            Files.createFile(datasetDir.resolve("seeded"));
+            System.out.printf("seeded %d employees, %d requests in %d ms%n", dataset.employees().size(),
+                    dataset.requests().size(), (System.nanoTime() - started) / 1_000_000);
+        }
+        Files.createDirectories(run);
+        Files.copy(pristine.resolve("vacationdb.mv.db"), run.resolve("vacationdb.mv.db"),
+                StandardCopyOption.REPLACE_EXISTING); // writes of the last run are discarded
+
+        try (ConfigurableApplicationContext context = start(run, true)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadTestRunner runner = new LoadTestRunner("http://localhost:" + port, dataset);
+            List<Result> results = new ArrayList<>();
+            for (String name : runner.selectedScenarios()) {
+                System.out.println("running " + name);
+                results.add(runner.run(name));
+            }
+            report(generator.key(), results);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(Path dataDir, boolean web) {
+        List<String> args = new ArrayList<>(List.of(
+                "--vacation.h2.data-dir=" + dataDir.toAbsolutePath(),
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--vacation.archive.cron=-", // nothing moves between scenarios
+                web ? "--server.port=0" : "--spring.main.web-application-type=none"));
+        Arrays.stream(APP_ARGS.split("\\s+")).filter(arg -> !arg.isBlank()).forEach(args::add);
+        return new SpringApplicationBuilder(VacationApplication.class)
+                .profiles("durable")
+                .run(args.toArray(String[]::new));
+    }
+
+    private final String baseUrl;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Map<String, Function<Random, HttpRequest>> scenarios = new LinkedHashMap<>();
+
+    private final List<DatasetGenerator.Employee> employees;
+    private final List<DatasetGenerator.Employee> managers;
+    private final Map<Long, List<Long>> departmentMembers;
+    private final Queue<long[]> pendingDecisions; // {requestId, managerId}, each decided once
+
+    LoadTestRunner(String baseUrl, DatasetGenerator.Dataset dataset) {
+        this.baseUrl = baseUrl;
+        this.employees = dataset.employees();
+        this.managers = employees.stream().filter(DatasetGenerator.Employee::manager).toList();
+        this.departmentMembers = employees.stream().collect(Collectors.groupingBy(
+                DatasetGenerator.Employee::departmentId,
+                Collectors.mapping(DatasetGenerator.Employee::id, Collectors.toList())));
+
+        Map<Long, DatasetGenerator.Employee> byId = new HashMap<>();
+        employees.forEach(e -> byId.put(e.id(), e));
+        List<long[]> decisions = new ArrayList<>();
+        for (DatasetGenerator.Request request : dataset.requests()) {
+            Long manager = byId.get(request.authorId()).reportsTo();
+            if ("pending".equals(request.status()) && manager != null) {
+                decisions.add(new long[] { request.id(), manager });
+            }
+        }
+        Collections.shuffle(decisions, new Random(SEED));
+        this.pendingDecisions = new ConcurrentLinkedQueue<>(decisions);
+
+        scenarios.put("employee.requests", r -> get("/api/employee/" + anyEmployee(r) + "/requests"));
+        scenarios.put("employee.requests.calendar", r -> get("/api/employee/" + anyEmployee(r)
+                + "/requests?fields=" + CALENDAR_FIELDS));
+        scenarios.put("employee.remaining-days", r -> get("/api/employee/" + anyEmployee(r) + "/remaining-days"));
+        scenarios.put("employee.create", this::create);
+        scenarios.put("manager.pending", r -> get("/api/manager/" + managers.get(r.nextInt(managers.size())).id()
+                + "/requests"));
+        scenarios.put("manager.requests.approved", r -> get("/api/manager/requests?status=approved&fields="
+                + CALENDAR_FIELDS));
+        scenarios.put("manager.absences", this::absences);
+        scenarios.put("manager.decide", this::decide);
+    }
+
+    private List<String> selectedScenarios() {
+        List<String> names = new ArrayList<>(scenarios.keySet());
+        names.add("mixed");
+        if ("all".equals(SCENARIOS)) {
+            return names;
+        }
+        List<String> selected = Arrays.stream(SCENARIOS.split(",")).map(String::trim).toList();
+        for (String name : selected) {
+            if (!names.contains(name)) {
+                throw new IllegalArgumentException("Unknown scenario " + name + ", available: " + names);
+            }
+        }
+        return selected;
+    }
+
+    // read-heavy blend of the above, roughly what a working day looks like
+    private HttpRequest mixed(Random random) {
+        int roll = random.nextInt(100);
+        String name = roll < 30 ? "employee.requests.calendar"
+                : roll < 50 ? "employee.remaining-days"
+                : roll < 60 ? "employee.requests"
+                : roll < 72 ? "manager.pending"
+                : roll < 80 ? "manager.absences"
+                : roll < 85 ? "manager.requests.approved"
+                : roll < 95 ? "employee.create"
+                : "manager.decide";
+        HttpRequest request = scenarios.get(name).apply(random);
+        return request != null ? request : scenarios.get("manager.pending").apply(random);
+    }
+
+    private long anyEmployee(Random random) {
+        return employees.get(random.nextInt(employees.size())).id();
+    }
+
+    private HttpRequest create(Random random) {
+        LocalDate start = TODAY.plusDays(30 + random.nextInt(370));
+        String body = "{\"vacationStartDate\":\"" + start + "\",\"vacationEndDate\":\""
+                + start.plusDays(1 + random.nextInt(5)) + "\"}";
+        return request("/api/employee/" + anyEmployee(random) + "/requests")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest absences(Random random) {
+        List<Long> team = departmentMembers.get(employees.get(random.nextInt(employees.size())).departmentId());
+        LocalDate start = TODAY.plusDays(random.nextInt(60));
+        return get("/api/manager/absences?startDate=" + start + "&endDate=" + start.plusDays(6) + "&employeeIds="
+                + team.stream().map(String::valueOf).collect(Collectors.joining(",")));
+    }
+
+    private HttpRequest decide(Random random) {
+        long[] decision = pendingDecisions.poll();
+        if (decision == null) {
+            return null; // every pending request of the dataset has been decided
+        }
+        String status = random.nextInt(10) < 7 ? "approved" : "rejected";
+        return request("/api/manager/request/" + decision[0] + "/status")
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(
+                        "{\"managerId\":" + decision[1] + ",\"status\":\"" + status + "\"}"))
+                .build();
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json");
+    }
+
+    Result run(String name) throws Exception {
+        Function<Random, HttpRequest> scenario = "mixed".equals(name) ? this::mixed : scenarios.get(name);
+        // pending requests are used up by deciding them, don't spend them on the warm-up
+        long measureFrom = System.nanoTime() + ("manager.decide".equals(name) ? 0 : WARMUP.toNanos());
+        long until = measureFrom + DURATION.toNanos();
+
+        ExecutorService pool = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            List<Future<Stats>> workers = new ArrayList<>();
+            for (int i = 0; i < CONCURRENCY; i++) {
+                Random random = new Random(SEED * 31 + name.hashCode() * 17L + i); // same sequence per client
+                workers.add(pool.submit(() -> drive(scenario, random, measureFrom, until)));
+            }
+            Stats total = new Stats();
+            for (Future<Stats> worker : workers) {
+                total.merge(worker.get());
+            }
+            return total.result(name);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Stats drive(Function<Random, HttpRequest> scenario, Random random, long measureFrom, long until) {
+        Stats stats = new Stats();
+        long now;
+        while ((now = System.nanoTime()) < until) {
+            HttpRequest request = scenario.apply(random);
+            if (request == null) {
+                break;
+            }
+            int status;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                status = -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (now >= measureFrom) {
+                stats.record(System.nanoTime() - now, status);
+            }
+        }
+        stats.measuredNanos = Math.max(0, Math.min(System.nanoTime(), until) - measureFrom);
+        return stats;
+    }
+
+    private static final class Stats {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long ok;
+        private long clientErrors;
+        private long serverErrors;
+        private long failed; // no response at all
+        private long measuredNanos;
+
+        void record(long nanos, int status) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (status < 0) {
+                failed++;
+            } else if (status >= 500) {
+                serverErrors++;
+            } else if (status >= 400) {
+                clientErrors++;
+            } else {
+                ok++;
+            }
+        }
+
+        void merge(Stats other) {
+            for (int i = 0; i < other.count; i++) {
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = other.latencies[i];
+            }
+            ok += other.ok;
+            clientErrors += other.clientErrors;
+            serverErrors += other.serverErrors;
+            failed += other.failed;
+            measuredNanos = Math.max(measuredNanos, other.measuredNanos);
+        }
+
+        Result result(String scenario) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            double seconds = measuredNanos / 1e9;
+            return new Result(scenario, count, seconds == 0 ? 0 : count / seconds,
+                    percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99),
+                    count == 0 ? 0 : sorted[count - 1] / 1e6, ok, clientErrors, serverErrors, failed);
+        }
+
+        // nearest-rank, in milliseconds
+        private static double percentile(long[] sorted, int p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+            return sorted[Math.max(0, rank - 1)] / 1e6;
+        }
+    }
+
+    record Result(String scenario, long requests, double throughput, double p50, double p95, double p99,
+            double max, long ok, long clientErrors, long serverErrors, long failed) {
+
+        static String header() {
+            return String.format("%-28s %9s %10s %8s %8s %8s %8s %8s %7s %7s %7s", "scenario", "requests",
+                    "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "2xx/3xx", "4xx", "5xx", "failed");
+        }
+
+        String row() {
+            return String.format("%-28s %9d %10.1f %8.2f %8.2f %8.2f %8.2f %8d %7d %7d %7d", scenario, requests,
+                    throughput, p50, p95, p99, max, ok, clientErrors, serverErrors, failed);
+        }
+
+        String csv(String timestamp, String dataset) {
+            return String.join(",", timestamp, dataset, scenario, String.valueOf(CONCURRENCY),
+                    String.valueOf(DURATION.toSeconds()), String.valueOf(requests),
+                    String.format("%.1f", throughput), String.format("%.2f", p50), String.format("%.2f", p95),
+                    String.format("%.2f", p99), String.format("%.2f", max), String.valueOf(ok),
+                    String.valueOf(clientErrors), String.valueOf(serverErrors), String.valueOf(failed));
+        }
+    }
+
+    private static void report(String dataset, List<Result> results) throws IOException {
+        System.out.printf("%n%d clients, %ds warm-up, %ds measured, dataset %s%n", CONCURRENCY,
+                WARMUP.toSeconds(), DURATION.toSeconds(), dataset);
+        System.out.println(Result.header());
+        results.forEach(result -> System.out.println(result.row()));
+
+        Path csv = WORK_DIR.resolve("results.csv");
+        boolean fresh = !Files.exists(csv);
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(csv,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+            if (fresh) {
+                out.println("timestamp,dataset,scenario,concurrency,duration_s,requests,throughput_rps,"
+                        + "p50_ms,p95_ms,p99_ms,max_ms,ok,client_errors,server_errors,failed");
+            }
+            String timestamp = LocalDateTime.now().withNano(0).toString();
+            results.forEach(result -> out.println(result.csv(timestamp, dataset)));
+        }
+        System.out.println("appended to " + csv);
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.eddie.vacation.repository;
+
+import com.eddie.vacation.TestEmployees;
+import com.eddie.vacation.dto.RequestStatusUpdateDto;
+import com.eddie.vacation.dto.VacationRequestDto;
+import com.eddie.vacation.model.Employee;
+import com.eddie.vacation.model.VacationRequest;
+import com.eddie.vacation.service.VacationService;
+import com.eddie.vacation.service.WorkingDayCalendar;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class SecondLevelCacheTest {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private VacationRequestRepository requestRepository;
+
+    @Autowired
+    private VacationService vacationService;
+
+    @Autowired
+    private WorkingDayCalendar workingDayCalendar;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void employee_secondRead_servedFromCache() {
+        Employee employee = employeeRepository.save(TestEmployees.employee("Cached Employee"));
+
+        employeeRepository.findById(employee.getId()).orElseThrow();
+        long hits = statistics.getDomainDataRegionStatistics("employees").getHitCount();
+        employeeRepository.findById(employee.getId()).orElseThrow();
+
+        assertEquals(hits + 1, statistics.getDomainDataRegionStatistics("employees").getHitCount());
+    }
+
+    @Test
+    void pendingQuery_cachedUntilStatusUpdate() {
+        Employee employee = employeeRepository.save(TestEmployees.reportingTo("Cached Employee",
+                employeeRepository.findById(2L).orElseThrow()));
+        VacationRequestDto dto = new VacationRequestDto();
+        dto.setAuthorId(employee.getId());
+        dto.setVacationStartDate(LocalDate.now().plusDays(30));
+        dto.setVacationEndDate(dto.getVacationStartDate().plusDays(6)); // always has working days
+        VacationRequest created = vacationService.createRequest(dto);
+
+        requestRepository.findAllPendingRequests();
+        List<VacationRequest> cached = requestRepository.findAllPendingRequests();
+        assertTrue(statistics.getQueryRegionStatistics("pending-requests").getHitCount() >= 1);
+        VacationRequest mine = cached.stream().filter(r -> r.getId().equals(created.getId())).findFirst().orElseThrow();
+        assertTrue(Hibernate.isInitialized(mine.getAuthor())); // usable after the session closed
+
+        RequestStatusUpdateDto approve = new RequestStatusUpdateDto();
+        approve.setManagerId(2L);
+        approve.setStatus("approved");
+        vacationService.updateRequestStatus(created.getId(), approve);
+
+        assertTrue(requestRepository.findAllPendingRequests().stream()
+                .noneMatch(r -> r.getId().equals(created.getId())));
+        assertEquals("approved", requestRepository.findById(created.getId()).orElseThrow().getStatus());
+        int deducted = workingDayCalendar.countWorkingDays(null, dto.getVacationStartDate(), dto.getVacationEndDate());
+        assertEquals(30 - deducted, employeeRepository.findById(employee.getId()).orElseThrow().getRemainingVacationDays());
+    }
+}
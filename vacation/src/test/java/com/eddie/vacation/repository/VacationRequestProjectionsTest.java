@@ -0,0 +1,99 @@
+package com.eddie.vacation.repository;
+
+import com.eddie.vacation.TestEmployees;
+import com.eddie.vacation.dto.RequestFieldSelection;
+import com.eddie.vacation.model.Employee;
+import com.eddie.vacation.model.VacationRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class VacationRequestProjectionsTest {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private VacationRequestRepository requestRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void findProjected_onlySelectedFields_withoutLoadingEmployees() {
+        Employee manager = employeeRepository.save(TestEmployees.employee("Projection Employee"));
+        Employee author = employeeRepository.save(TestEmployees.employee("Projection Employee"));
+        VacationRequest request = save(author, manager, LocalDate.of(2027, 3, 1));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<Map<String, Object>> views = requestRepository.findProjected(
+                RequestFieldSelection.parse("vacationEndDate,id,author", null), author.getId(), "approved");
+
+        assertEquals(1, views.size());
+        assertEquals(List.of("id", "vacationEndDate", "author"), List.copyOf(views.get(0).keySet()));
+        assertEquals(request.getId(), views.get(0).get("id"));
+        assertEquals(Map.of("id", author.getId()), views.get(0).get("author"));
+        assertEquals(0, statistics.getEntityLoadCount() + statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void findProjected_expanded_joinsFullEmployee() {
+        Employee author = employeeRepository.save(TestEmployees.employee("Projection Employee"));
+        save(author, null, LocalDate.of(2027, 4, 5));
+
+        List<Map<String, Object>> views = requestRepository.findProjected(
+                RequestFieldSelection.parse(null, "author"), author.getId(), null);
+
+        assertEquals(RequestFieldSelection.FIELDS, List.copyOf(views.get(0).keySet()));
+        Employee loaded = (Employee) views.get(0).get("author");
+        assertEquals(author.getEmail(), loaded.getEmail());
+        assertNull(views.get(0).get("resolvedBy"));
+    }
+
+    @Test
+    void findPendingRequestsForManager_directReportsAndUnassignedAuthors() {
+        Employee manager = employeeRepository.save(TestEmployees.reportingTo("Queue Manager", null));
+        Employee otherManager = employeeRepository.save(TestEmployees.reportingTo("Other Manager", null));
+        Employee report = employeeRepository.save(TestEmployees.reportingTo("Queue Report", manager));
+        Employee otherReport = employeeRepository.save(TestEmployees.reportingTo("Other Report", otherManager));
+        VacationRequest fromReport = save(report, null, LocalDate.of(2027, 5, 3));
+        VacationRequest fromOtherManager = save(otherManager, null, LocalDate.of(2027, 5, 10));
+        VacationRequest own = save(manager, null, LocalDate.of(2027, 5, 17));
+        VacationRequest fromOtherReport = save(otherReport, null, LocalDate.of(2027, 5, 24));
+
+        List<Long> queue = requestRepository.findPendingRequestsForManager(manager.getId()).stream()
+                .map(VacationRequest::getId).toList();
+
+        assertTrue(queue.containsAll(List.of(fromReport.getId(), fromOtherManager.getId())));
+        assertFalse(queue.contains(own.getId())); // managers never resolve their own
+        assertFalse(queue.contains(fromOtherReport.getId()));
+    }
+
+    @Test
+    void parse_unknownField_isRejected() {
+        assertNull(RequestFieldSelection.parse(null, " "));
+        assertThrows(IllegalArgumentException.class, () -> RequestFieldSelection.parse("id,salary", null));
+        assertThrows(IllegalArgumentException.class, () -> RequestFieldSelection.parse(null, "department"));
+    }
+
+    private VacationRequest save(Employee author, Employee resolvedBy, LocalDate start) {
+        VacationRequest request = new VacationRequest();
+        request.setAuthor(author);
+        request.setResolvedBy(resolvedBy);
+        request.setStatus(resolvedBy == null ? "pending" : "approved");
+        request.setVacationStartDate(start);
+        request.setVacationEndDate(start.plusDays(2));
+        return requestRepository.save(request);
+    }
+}
@@ -0,0 +1,84 @@
+package com.eddie.vacation.service;
+
+import com.eddie.vacation.event.EmployeesOffboardedEvent;
+import com.eddie.vacation.event.VacationRequestChangedEvent;
+import com.eddie.vacation.model.Employee;
+import com.eddie.vacation.model.VacationRequest;
+import com.eddie.vacation.repository.VacationRequestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AbsenceIndexTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(10);
+
+    private VacationRequestRepository requestRepository;
+    private AbsenceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        requestRepository = mock(VacationRequestRepository.class);
+        when(requestRepository.findOverlappingApprovedRequests(any(), any())).thenReturn(List.of(
+                approved(1L, DAY, DAY.plusDays(4)),
+                approved(2L, DAY.plusDays(2), DAY.plusDays(3)),
+                approved(3L, DAY.minusDays(200), DAY.minusDays(150)))); // partly before the look-back
+        index = new AbsenceIndex(requestRepository, 30);
+        index.run(null);
+    }
+
+    @Test
+    void absentBetween_loadsApprovedRequests() {
+        Map<LocalDate, List<Long>> absences = index.absentBetween(DAY, DAY.plusDays(5), null);
+
+        assertEquals(List.of(1L), absences.get(DAY));
+        assertEquals(List.of(1L, 2L), absences.get(DAY.plusDays(2)));
+        assertFalse(absences.containsKey(DAY.plusDays(5)));
+        verify(requestRepository, times(1)).findOverlappingApprovedRequests(any(), any());
+    }
+
+    @Test
+    void absentBetween_team_intersects() {
+        Map<LocalDate, List<Long>> absences = index.absentBetween(DAY, DAY.plusDays(4), List.of(2L, 99L));
+
+        assertEquals(Map.of(DAY.plusDays(2), List.of(2L), DAY.plusDays(3), List.of(2L)), absences);
+    }
+
+    @Test
+    void statusChanges_updateIndexIncrementally() {
+        index.onRequestChanged(new VacationRequestChangedEvent(10L, 5L, "pending", "approved", DAY, DAY, LocalDateTime.now()));
+        assertEquals(List.of(1L, 5L), index.absentBetween(DAY, DAY, null).get(DAY));
+
+        index.onRequestChanged(new VacationRequestChangedEvent(10L, 5L, "approved", "rejected", DAY, DAY, LocalDateTime.now()));
+        index.onRequestChanged(new VacationRequestChangedEvent(11L, 6L, null, "pending", DAY, DAY, LocalDateTime.now()));
+        assertEquals(List.of(1L), index.absentBetween(DAY, DAY, null).get(DAY));
+
+        index.onEmployeesOffboarded(new EmployeesOffboardedEvent(List.of(1L), List.of(), List.of()));
+        assertTrue(index.absentBetween(DAY, DAY.plusDays(1), null).isEmpty());
+    }
+
+    @Test
+    void absentBetween_beforeIndexedRange_throwsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> index.absentBetween(LocalDate.now().minusDays(60), LocalDate.now(), null));
+    }
+
+    private static VacationRequest approved(Long authorId, LocalDate start, LocalDate end) {
+        Employee author = new Employee();
+        author.setId(authorId);
+        VacationRequest request = new VacationRequest();
+        request.setAuthor(author);
+        request.setStatus("approved");
+        request.setVacationStartDate(start);
+        request.setVacationEndDate(end);
+        return request;
+    }
+}
@@ -0,0 +1,133 @@
+package com.eddie.vacation.service;
+
+import com.eddie.vacation.TestEmployees;
+import com.eddie.vacation.event.EmployeeChangedEvent;
+import com.eddie.vacation.event.VacationRequestChangedEvent;
+import com.eddie.vacation.model.Department;
+import com.eddie.vacation.model.Employee;
+import com.eddie.vacation.model.VacationRequest;
+import com.eddie.vacation.repository.DepartmentRepository;
+import com.eddie.vacation.repository.EmployeeRepository;
+import com.eddie.vacation.repository.VacationRequestRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CalendarFeedsTest {
+
+    private static final LocalDate START = LocalDate.now().plusDays(40);
+
+    @Autowired
+    private CalendarFeeds calendarFeeds;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private VacationRequestRepository requestRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void employeeFeed_renderedOnce_thenPatchedByApprovals() {
+        Employee employee = employeeRepository.save(TestEmployees.employee("Feed Employee"));
+        VacationRequest approved = save(employee, "approved", START);
+        VacationRequest pending = save(employee, "pending", START.plusDays(20));
+
+        CalendarFeeds.Feed feed = calendarFeeds.employeeFeed(employee.getId());
+        String ics = text(feed);
+        assertTrue(ics.startsWith("BEGIN:VCALENDAR\r\n"));
+        assertTrue(ics.contains("UID:vacation-request-" + approved.getId() + "@vacation\r\n"));
+        assertTrue(ics.contains("DTEND;VALUE=DATE:" + START.plusDays(3).toString().replace("-", "")));
+        assertFalse(ics.contains("vacation-request-" + pending.getId() + "@"));
+        assertSame(feed, calendarFeeds.employeeFeed(employee.getId())); // no rebuild while nothing changed
+        assertTrue(feed.etag().startsWith("W/")); // strong tags turn off gzip
+
+        pending.setStatus("approved");
+        pending.setResolvedAt(LocalDateTime.now());
+        requestRepository.save(pending);
+        calendarFeeds.onRequestChanged(new VacationRequestChangedEvent(pending.getId(), employee.getId(),
+                "pending", "approved", pending.getVacationStartDate(), pending.getVacationEndDate(),
+                pending.getResolvedAt()));
+        CalendarFeeds.Feed patched = calendarFeeds.employeeFeed(employee.getId());
+        assertNotEquals(feed.etag(), patched.etag());
+        assertTrue(text(patched).contains("vacation-request-" + pending.getId() + "@"));
+
+        eventPublisher.publishEvent(new EmployeeChangedEvent(employee.getId(), null, null, List.of())); // evicts
+        assertEquals(patched.etag(), calendarFeeds.employeeFeed(employee.getId()).etag()); // rebuilt, same bytes
+
+        calendarFeeds.onRequestChanged(new VacationRequestChangedEvent(approved.getId(), employee.getId(),
+                "approved", "rejected", approved.getVacationStartDate(), approved.getVacationEndDate(),
+                LocalDateTime.now()));
+        assertFalse(text(calendarFeeds.employeeFeed(employee.getId())).contains("vacation-request-" + approved.getId() + "@"));
+    }
+
+    @Test
+    void departmentFeed_namesMembers_andFoldsLongLines() {
+        Department department = newDepartment();
+        Employee member = employeeRepository.save(TestEmployees.inDepartment(
+                "Nomvula Dlamini-Van Der Westhuizen, Senior Platform Reliability Engineer", department));
+        save(member, "approved", START);
+        save(member, "approved", LocalDate.now().minusYears(1)); // before the look-back window
+
+        String ics = text(calendarFeeds.departmentFeed(department.getId()));
+
+        assertEquals(1, ics.split("BEGIN:VEVENT", -1).length - 1);
+        assertTrue(ics.contains("SUMMARY:Nomvula Dlamini-Van Der Westhuizen\\, Senior"));
+        for (String line : ics.split("\r\n")) {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75, line);
+        }
+        assertThrows(jakarta.persistence.EntityNotFoundException.class, () -> calendarFeeds.departmentFeed(-1L));
+    }
+
+    @Test
+    void employeeChanged_dropsOnlyTheTeamsInvolved() {
+        Department team = newDepartment();
+        Department otherTeam = newDepartment();
+        Employee member = employeeRepository.save(TestEmployees.inDepartment("Moving Employee", team));
+        save(member, "approved", START);
+        save(employeeRepository.save(TestEmployees.inDepartment("Staying Employee", otherTeam)), "approved", START);
+        CalendarFeeds.Feed teamFeed = calendarFeeds.departmentFeed(team.getId());
+        CalendarFeeds.Feed otherFeed = calendarFeeds.departmentFeed(otherTeam.getId());
+
+        eventPublisher.publishEvent(new EmployeeChangedEvent(-1L, null, null, List.of())); // no team
+        assertSame(teamFeed, calendarFeeds.departmentFeed(team.getId()));
+
+        eventPublisher.publishEvent(new EmployeeChangedEvent(member.getId(), team.getId(), team.getId(), List.of()));
+        assertNotSame(teamFeed, calendarFeeds.departmentFeed(team.getId()));
+        assertSame(otherFeed, calendarFeeds.departmentFeed(otherTeam.getId()));
+    }
+
+    private Department newDepartment() {
+        Department department = new Department();
+        department.setName("Feeds " + UUID.randomUUID());
+        return departmentRepository.save(department);
+    }
+
+    private static String text(CalendarFeeds.Feed feed) {
+        return new String(feed.body(), StandardCharsets.UTF_8);
+    }
+
+    private VacationRequest save(Employee author, String status, LocalDate start) {
+        VacationRequest request = new VacationRequest();
+        request.setAuthor(author);
+        request.setStatus(status);
+        request.setVacationStartDate(start);
+        request.setVacationEndDate(start.plusDays(2));
+        return requestRepository.save(request);
+    }
+}
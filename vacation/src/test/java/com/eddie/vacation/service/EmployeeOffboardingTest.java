@@ -0,0 +1,79 @@
+package com.eddie.vacation.service;
+
+import com.eddie.vacation.TestEmployees;
+import com.eddie.vacation.model.Employee;
+import com.eddie.vacation.model.VacationRequest;
+import com.eddie.vacation.repository.EmployeeRepository;
+import com.eddie.vacation.repository.VacationRequestRepository;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class EmployeeOffboardingTest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private VacationRequestRepository requestRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Test
+    void offboardEmployees_removesOwnRequestsAndKeepsResolvedHistory() {
+        Employee manager = employeeRepository.save(TestEmployees.reportingTo("Offboarding Employee", null));
+        Employee report = employeeRepository.save(TestEmployees.reportingTo("Offboarding Employee", manager));
+        Employee leaver = employeeRepository.save(TestEmployees.reportingTo("Offboarding Employee", manager));
+        for (int i = 0; i < 50; i++) {
+            save(report, manager, LocalDate.of(2026, 1, 1).plusDays(i * 7L));
+        }
+        save(manager, null, LocalDate.of(2026, 3, 2));
+        save(leaver, manager, LocalDate.of(2026, 4, 6));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long reportVersion = resourceVersions.employee(report.getId()).version();
+
+        assertEquals(2, employeeService.offboardEmployees(List.of(manager.getId(), leaver.getId(), leaver.getId())));
+
+        assertEquals(0, statistics.getCollectionLoadCount()); // no request collections pulled into memory
+        assertFalse(employeeRepository.existsById(manager.getId()));
+        assertFalse(employeeRepository.existsById(leaver.getId()));
+        assertEquals(50, requestRepository.findByAuthor(report).size());
+        assertTrue(requestRepository.findByAuthor(report).stream().allMatch(r -> r.getResolvedBy() == null));
+        assertNull(employeeRepository.findById(report.getId()).orElseThrow().getReportsTo());
+        assertTrue(resourceVersions.employee(report.getId()).version() > reportVersion); // cached lists showed the manager
+    }
+
+    @Test
+    void deleteEmployee_unknownId_throwsException() {
+        assertThrows(EntityNotFoundException.class, () -> employeeService.deleteEmployee(-1L));
+    }
+
+    private VacationRequest save(Employee author, Employee resolvedBy, LocalDate start) {
+        VacationRequest request = new VacationRequest();
+        request.setAuthor(author);
+        request.setResolvedBy(resolvedBy);
+        request.setStatus(resolvedBy == null ? "pending" : "approved");
+        request.setVacationStartDate(start);
+        request.setVacationEndDate(start.plusDays(2));
+        return requestRepository.save(request);
+    }
+}
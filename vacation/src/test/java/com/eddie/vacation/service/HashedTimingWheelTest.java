@@ -0,0 +1,58 @@
+package com.eddie.vacation.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimingWheelTest {
+
+    private final HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 8, 0);
+
+    @Test
+    void advanceTo_expiresOnlyDueTimers_roundedUpToTick() {
+        wheel.schedule("a", 150);
+        wheel.schedule("b", 200);
+        wheel.schedule("c", 250);
+
+        assertEquals(List.of(), wheel.advanceTo(199)); // 150 rounds up to the tick at 200
+        assertEquals(List.of("a", "b"), wheel.advanceTo(200));
+        assertEquals(List.of("c"), wheel.advanceTo(300));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void timersBeyondOneRotation_waitForTheirRound() {
+        wheel.schedule("later", 1_000); // tick 10, same bucket as tick 2
+        wheel.schedule("soon", 200);
+
+        assertEquals(List.of("soon"), wheel.advanceTo(200));
+        assertEquals(List.of(), wheel.advanceTo(900));
+        assertEquals(List.of("later"), wheel.advanceTo(1_000));
+    }
+
+    @Test
+    void cancel_removesTimer_onlyOnce() {
+        HashedTimingWheel.Timer<String> timer = wheel.schedule("a", 300);
+
+        assertTrue(wheel.cancel(timer));
+        assertFalse(wheel.cancel(timer));
+        assertEquals(List.of(), wheel.advanceTo(1_000));
+    }
+
+    @Test
+    void pastDeadlinesAndLongGaps_expireOnNextAdvance() {
+        wheel.advanceTo(500);
+        wheel.schedule("overdue", 100);
+        for (int i = 0; i < 1_000; i++) {
+            wheel.schedule("t" + i, 600 + i * 37L);
+        }
+
+        List<String> expired = wheel.advanceTo(1_000_000); // many rotations in one step
+
+        assertEquals(1_001, expired.size());
+        assertTrue(expired.contains("overdue"));
+        assertEquals(0, wheel.size());
+    }
+}
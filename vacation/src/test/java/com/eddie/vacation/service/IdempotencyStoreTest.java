@@ -0,0 +1,159 @@
+package com.eddie.vacation.service;
+
+import com.eddie.vacation.exception.IdempotencyConflictException;
+import com.eddie.vacation.model.IdempotencyRecord;
+import com.eddie.vacation.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IdempotencyStoreTest {
+
+    private static final String SCOPE = "POST /api/employee/1/requests";
+
+    @Test
+    void execute_sameKey_runsWriteOnceAndReplays() {
+        IdempotencyStore store = store(Duration.ofHours(1), 100);
+        AtomicInteger writes = new AtomicInteger();
+
+        ResponseEntity<?> first = store.execute("k1", SCOPE, Map.of("days", 3),
+                () -> ResponseEntity.ok("created " + writes.incrementAndGet()));
+        ResponseEntity<?> second = store.execute("k1", SCOPE, Map.of("days", 3),
+                () -> ResponseEntity.ok("created " + writes.incrementAndGet()));
+
+        assertEquals(1, writes.get());
+        assertEquals("created 1", first.getBody());
+        assertEquals("created 1", second.getBody());
+        assertEquals("true", second.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    }
+
+    @Test
+    void execute_keyReusedWithDifferentPayload_conflicts() {
+        IdempotencyStore store = store(Duration.ofHours(1), 100);
+        store.execute("k1", SCOPE, Map.of("days", 3), () -> ResponseEntity.ok("created"));
+
+        assertThrows(IdempotencyConflictException.class,
+                () -> store.execute("k1", SCOPE, Map.of("days", 4), () -> ResponseEntity.ok("created")));
+    }
+
+    @Test
+    void execute_serverError_isNotReplayed() {
+        IdempotencyStore store = store(Duration.ofHours(1), 100);
+        AtomicInteger writes = new AtomicInteger();
+
+        store.execute("k1", SCOPE, "body", () -> {
+            writes.incrementAndGet();
+            return ResponseEntity.internalServerError().build();
+        });
+        ResponseEntity<?> retry = store.execute("k1", SCOPE, "body", () -> {
+            writes.incrementAndGet();
+            return ResponseEntity.ok("created");
+        });
+
+        assertEquals(2, writes.get());
+        assertEquals(200, retry.getStatusCode().value());
+    }
+
+    @Test
+    void execute_expiredKey_runsAgainAndMapStaysBounded() {
+        IdempotencyStore store = store(Duration.ZERO, 2);
+        AtomicInteger writes = new AtomicInteger();
+
+        for (int i = 0; i < 10; i++) {
+            store.execute("k" + i, SCOPE, "body", () -> ResponseEntity.ok(writes.incrementAndGet()));
+        }
+        store.execute("k0", SCOPE, "body", () -> ResponseEntity.ok(writes.incrementAndGet()));
+
+        assertEquals(11, writes.get());
+        assertTrue(store.size() <= 2);
+    }
+
+    @Test
+    void execute_duplicateWhileInFlight_waitsForFirstResult() throws Exception {
+        IdempotencyStore store = store(Duration.ofHours(1), 100);
+        AtomicInteger writes = new AtomicInteger();
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ResponseEntity<?>> first = executor.submit(() -> store.execute("k1", SCOPE, "body", () -> {
+                writes.incrementAndGet();
+                inside.countDown();
+                await(release);
+                return ResponseEntity.ok("created");
+            }));
+            assertTrue(inside.await(5, TimeUnit.SECONDS));
+            Future<ResponseEntity<?>> duplicate = executor.submit(() -> store.execute("k1", SCOPE, "body", () -> {
+                writes.incrementAndGet();
+                return ResponseEntity.ok("duplicate");
+            }));
+
+            release.countDown();
+            assertEquals("created", first.get(5, TimeUnit.SECONDS).getBody());
+            assertEquals("created", duplicate.get(5, TimeUnit.SECONDS).getBody());
+            assertEquals(1, writes.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_persistedKeyAfterRestart_comparesTheOriginalPayload() {
+        Map<String, IdempotencyRecord> table = new HashMap<>();
+        IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+        when(repository.save(any())).thenAnswer(call -> {
+            IdempotencyRecord record = call.getArgument(0);
+            table.put(record.getKey(), record);
+            return record;
+        });
+        when(repository.findById(any())).thenAnswer(call -> Optional.ofNullable(table.get(call.getArgument(0))));
+        persistentStore(repository).execute("k1", SCOPE, Map.of("days", 3), () -> ResponseEntity.ok("created"));
+
+        IdempotencyStore restarted = persistentStore(repository);
+        assertThrows(IdempotencyConflictException.class,
+                () -> restarted.execute("k1", SCOPE, Map.of("days", 4), () -> ResponseEntity.ok("created again")));
+        ResponseEntity<?> retry = restarted.execute("k1", SCOPE, Map.of("days", 3),
+                () -> ResponseEntity.ok("created again"));
+
+        assertEquals("\"created\"", retry.getBody()); // stored as JSON
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    }
+
+    private static IdempotencyStore persistentStore(IdempotencyRecordRepository repository) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("idempotencyRecordRepository", repository);
+        return new IdempotencyStore(Duration.ofHours(1), 100, Duration.ofSeconds(5), true,
+                beans.getBeanProvider(IdempotencyRecordRepository.class), new ObjectMapper());
+    }
+
+    private static IdempotencyStore store(Duration ttl, int maxEntries) {
+        return new IdempotencyStore(ttl, maxEntries, Duration.ofSeconds(5), false,
+                new StaticListableBeanFactory().getBeanProvider(IdempotencyRecordRepository.class),
+                new ObjectMapper());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
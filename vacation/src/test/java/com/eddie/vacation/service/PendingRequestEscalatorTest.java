@@ -0,0 +1,131 @@
+package com.eddie.vacation.service;
+
+import com.eddie.vacation.event.VacationRequestChangedEvent;
+import com.eddie.vacation.event.VacationRequestEscalatedEvent;
+import com.eddie.vacation.model.Employee;
+import com.eddie.vacation.model.VacationRequest;
+import com.eddie.vacation.repository.VacationRequestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class PendingRequestEscalatorTest {
+
+    private static final long DAY_MILLIS = Duration.ofDays(1).toMillis();
+    private static final LocalDate START = LocalDate.now().plusDays(30);
+
+    private VacationRequestRepository requestRepository;
+    private VacationService vacationService;
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        requestRepository = mock(VacationRequestRepository.class);
+        vacationService = mock(VacationService.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+    }
+
+    @Test
+    void pendingPastDeadline_escalatesToManagersManager() {
+        PendingRequestEscalator escalator = escalator(Duration.ZERO);
+        long now = System.currentTimeMillis();
+        when(requestRepository.findById(10L)).thenReturn(Optional.of(pending(10L, LocalDateTime.now())));
+
+        escalator.onRequestChanged(new VacationRequestChangedEvent(10L, 1L, null, "pending", START, START, LocalDateTime.now()));
+        escalator.advanceTo(now + 6 * DAY_MILLIS);
+        verify(eventPublisher, never()).publishEvent(any());
+
+        escalator.advanceTo(now + 8 * DAY_MILLIS);
+
+        ArgumentCaptor<VacationRequestEscalatedEvent> event = ArgumentCaptor.forClass(VacationRequestEscalatedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(10L, event.getValue().requestId());
+        assertEquals(2L, event.getValue().managerId());
+        assertEquals(3L, event.getValue().escalateToId());
+        assertEquals(0, escalator.getOutstandingCount());
+    }
+
+    @Test
+    void resolvedRequest_cancelsDeadline() {
+        PendingRequestEscalator escalator = escalator(Duration.ZERO);
+
+        escalator.onRequestChanged(new VacationRequestChangedEvent(10L, 1L, null, "pending", START, START, LocalDateTime.now()));
+        assertEquals(1, escalator.getOutstandingCount());
+        escalator.onRequestChanged(new VacationRequestChangedEvent(10L, 1L, "pending", "approved", START, START, LocalDateTime.now()));
+        escalator.advanceTo(System.currentTimeMillis() + 30 * DAY_MILLIS);
+
+        assertEquals(0, escalator.getOutstandingCount());
+        verify(requestRepository, never()).findById(anyLong());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void startup_rebuildsDeadlines_andAutoRejectsOverdueRequests() {
+        PendingRequestEscalator escalator = escalator(Duration.ofDays(14));
+        LocalDateTime createdAt = LocalDateTime.now().minusDays(20);
+        when(requestRepository.findPendingSince()).thenReturn(List.of(pendingSince(10L, createdAt)));
+        when(requestRepository.findById(10L)).thenReturn(Optional.of(pending(10L, createdAt)));
+        when(vacationService.expirePendingRequest(10L)).thenReturn(true);
+
+        escalator.run(null);
+        long now = System.currentTimeMillis();
+        escalator.advanceTo(now);
+        verify(eventPublisher).publishEvent(any(VacationRequestEscalatedEvent.class));
+        verify(vacationService, never()).expirePendingRequest(anyLong());
+
+        escalator.advanceTo(now + Duration.ofMinutes(1).toMillis());
+
+        verify(vacationService).expirePendingRequest(10L);
+        assertEquals(0, escalator.getOutstandingCount());
+    }
+
+    private PendingRequestEscalator escalator(Duration autoRejectAfter) {
+        return new PendingRequestEscalator(requestRepository, vacationService, eventPublisher,
+                mock(PlatformTransactionManager.class), Duration.ofDays(7), autoRejectAfter, Duration.ofMinutes(1), 64);
+    }
+
+    private static VacationRequest pending(Long id, LocalDateTime createdAt) {
+        Employee director = employee(3L, null);
+        Employee manager = employee(2L, director);
+        VacationRequest request = new VacationRequest();
+        request.setId(id);
+        request.setAuthor(employee(1L, manager));
+        request.setStatus("pending");
+        request.setRequestCreatedAt(createdAt);
+        return request;
+    }
+
+    private static Employee employee(Long id, Employee reportsTo) {
+        Employee employee = new Employee();
+        employee.setId(id);
+        employee.setReportsTo(reportsTo);
+        return employee;
+    }
+
+    private static VacationRequestRepository.PendingSince pendingSince(Long id, LocalDateTime createdAt) {
+        return new VacationRequestRepository.PendingSince() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getRequestCreatedAt() {
+                return createdAt;
+            }
+        };
+    }
+}
@@ -0,0 +1,119 @@
+package com.eddie.vacation.service;
+
+import com.eddie.vacation.TestEmployees;
+import com.eddie.vacation.model.Employee;
+import com.eddie.vacation.model.VacationRequest;
+import com.eddie.vacation.repository.EmployeeRepository;
+import com.eddie.vacation.repository.VacationRequestRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// statement counts of the VacationService reads must not grow with the number of rows (N+1)
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:querybudget") // own context, own database
+@AutoConfigureMockMvc
+class QueryBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private QueryTracer tracer;
+
+    @Autowired
+    private VacationService vacationService;
+
+    @Autowired
+    private ReadCoalescer readCoalescer;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private VacationRequestRepository requestRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void dashboardReads_singleStatementRegardlessOfRows() {
+        Employee manager = employeeRepository.save(TestEmployees.reportingTo("Budget Employee", null));
+        addReports(manager, 2);
+        int pendingForFew = cold(() -> vacationService.getRequestsForManager(manager.getId()));
+        int allForFew = cold(() -> vacationService.getAllRequests());
+        addReports(manager, 25);
+
+        assertEquals(pendingForFew, cold(() -> vacationService.getRequestsForManager(manager.getId())));
+        assertEquals(allForFew, cold(() -> vacationService.getAllRequests()));
+        assertEquals(1, allForFew);
+        assertTrue(pendingForFew <= 2, "manager lookup plus one query, was " + pendingForFew);
+    }
+
+    @Test
+    void history_boundedRegardlessOfRows() {
+        Employee employee = employeeRepository.save(TestEmployees.reportingTo("Budget Employee", null));
+        for (int i = 0; i < 20; i++) {
+            save(employee, LocalDate.of(2027, 1, 4).plusWeeks(i));
+        }
+        int statements = cold(() -> vacationService.getRequestHistoryByEmployee(employee.getId(), null));
+        assertTrue(statements <= 3, "employee, live requests and archive, was " + statements);
+    }
+
+    @Test
+    void count_reportsStatementsAndRows() {
+        assertEquals(2, tracer.count(() -> {
+            jdbcTemplate.queryForList("SELECT id FROM employees");
+            assertEquals(1, tracer.count(() -> jdbcTemplate.update("UPDATE departments SET name = name WHERE id = -1")));
+        }));
+    }
+
+    @Test
+    void httpRequest_statementsTaggedWithEndpoint() throws Exception {
+        Employee employee = employeeRepository.save(TestEmployees.reportingTo("Budget Employee", null));
+        entityManagerFactory.getCache().evictAll();
+
+        mockMvc.perform(get("/api/employee/" + employee.getId() + "/remaining-days")).andExpect(status().isOk());
+
+        assertTrue(meterRegistry.get("vacation.sql.statements")
+                .tag("endpoint", "GET /api/employee/{employeeId}/remaining-days").timer().count() >= 1);
+    }
+
+    // nothing served from the coalescer or the second-level cache
+    private int cold(Runnable read) {
+        readCoalescer.invalidate();
+        entityManagerFactory.getCache().evictAll();
+        return tracer.count(read);
+    }
+
+    private void addReports(Employee manager, int count) {
+        for (int i = 0; i < count; i++) {
+            Employee report = employeeRepository.save(TestEmployees.reportingTo("Budget Employee", manager));
+            save(report, LocalDate.of(2027, 2, 1));
+        }
+    }
+
+    private void save(Employee author, LocalDate start) {
+        VacationRequest request = new VacationRequest();
+        request.setAuthor(author);
+        request.setVacationStartDate(start);
+        request.setVacationEndDate(start.plusDays(2));
+        requestRepository.save(request);
+    }
+}
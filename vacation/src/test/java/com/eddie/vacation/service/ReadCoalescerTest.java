@@ -0,0 +1,94 @@
+package com.eddie.vacation.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadCoalescerTest {
+
+    @Test
+    void coalesce_concurrentSameKey_sharesOneQuery() throws Exception {
+        ReadCoalescer coalescer = new ReadCoalescer(0);
+        AtomicInteger queries = new AtomicInteger();
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<Integer> leader = executor.submit(() -> coalescer.coalesce("pending", () -> {
+                inside.countDown();
+                await(release);
+                return queries.incrementAndGet();
+            }));
+            assertTrue(inside.await(5, TimeUnit.SECONDS));
+
+            List<Future<Integer>> followers = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                followers.add(executor.submit(() -> coalescer.coalesce("pending", queries::incrementAndGet)));
+            }
+            while (coalescer.getCoalescedCount() < 7) {
+                Thread.onSpinWait(); // followers have joined the leader's flight
+            }
+            release.countDown();
+
+            assertEquals(1, leader.get(5, TimeUnit.SECONDS));
+            for (Future<Integer> follower : followers) {
+                assertEquals(1, follower.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, queries.get());
+            assertEquals(7.0 / 8, coalescer.getCoalescingRatio(), 1e-9);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void coalesce_noFreshnessWindow_finishedQueryRunsAgain() {
+        ReadCoalescer coalescer = new ReadCoalescer(0);
+        AtomicInteger queries = new AtomicInteger();
+
+        coalescer.coalesce("pending", queries::incrementAndGet);
+        coalescer.coalesce("pending", queries::incrementAndGet);
+
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    void coalesce_withinFreshnessWindow_reusesUntilInvalidated() {
+        ReadCoalescer coalescer = new ReadCoalescer(60_000);
+        AtomicInteger queries = new AtomicInteger();
+
+        assertEquals(1, coalescer.coalesce("pending", queries::incrementAndGet));
+        assertEquals(1, coalescer.coalesce("pending", queries::incrementAndGet));
+        assertEquals(2, coalescer.coalesce("all", queries::incrementAndGet));
+
+        coalescer.invalidate(); // a write committed
+        assertEquals(3, coalescer.coalesce("pending", queries::incrementAndGet));
+    }
+
+    @Test
+    void coalesce_failedQuery_isNotReused() {
+        ReadCoalescer coalescer = new ReadCoalescer(60_000);
+
+        assertThrows(IllegalStateException.class, () -> coalescer.coalesce("pending", () -> {
+            throw new IllegalStateException("db down");
+        }));
+        assertEquals("ok", coalescer.coalesce("pending", () -> "ok"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
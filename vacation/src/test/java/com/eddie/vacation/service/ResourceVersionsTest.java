@@ -0,0 +1,48 @@
+package com.eddie.vacation.service;
+
+import com.eddie.vacation.event.EmployeeChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceVersionsTest {
+
+    @Test
+    void employeeChanged_bumpsEmployeesWhoseRequestsItResolved() {
+        ResourceVersions versions = new ResourceVersions();
+        ResourceVersions.Stamp report = versions.employee(7L);
+        ResourceVersions.Stamp other = versions.employee(8L);
+
+        versions.onEmployeeChanged(new EmployeeChangedEvent(2L, null, null, List.of(7L))); // manager renamed
+
+        assertNotEquals(report.version(), versions.employee(7L).version());
+        assertEquals(other.version(), versions.employee(8L).version());
+    }
+
+    @Test
+    void ifModifiedSince_sameSecondAsSeveralWrites_isModified() {
+        long secondStart = Instant.now().getEpochSecond() * 1000;
+        ResourceVersions.Stamp first = new ResourceVersions.Stamp(0, secondStart - 5000, 0).next(secondStart + 100);
+        ResourceVersions.Stamp later = first.next(secondStart + 600); // another write in the same second
+
+        assertTrue(ResourceVersions.isNotModified(ifModifiedSince(secondStart), "W/\"x\"", first));
+        assertFalse(ResourceVersions.isNotModified(ifModifiedSince(secondStart), "W/\"x\"", later));
+        assertTrue(ResourceVersions.isNotModified(ifModifiedSince(secondStart + 1000), "W/\"x\"", later));
+    }
+
+    private static WebRequest ifModifiedSince(long epochMillis) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/employee/7/requests");
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, DateTimeFormatter.RFC_1123_DATE_TIME
+                .format(Instant.ofEpochMilli(epochMillis).atOffset(ZoneOffset.UTC)));
+        return new ServletWebRequest(request);
+    }
+}
@@ -0,0 +1,61 @@
+package com.eddie.vacation.service;
+
+import com.eddie.vacation.repository.EmployeeRepository;
+import com.eddie.vacation.repository.VacationRequestRepository;
+import com.eddie.vacation.tenant.TenantRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class StartupWarmupTest {
+
+    @Autowired
+    private StartupWarmup warmup;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationAvailability availability;
+
+    @Autowired
+    private VacationService vacationService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private VacationRequestRepository requestRepository;
+
+    @Autowired
+    private TenantRegistry tenantRegistry;
+
+    @Autowired
+    private QueryTracer queryTracer;
+
+    @Test
+    void warmup_ranAtStartup_reportsDuration() {
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, availability.getReadinessState());
+        assertTrue(warmup.getQueries() > 2); // seeded managers and pending requests were sampled
+        assertEquals(warmup.getDurationMillis(),
+                meterRegistry.get("vacation.warmup.duration").timeGauge().value(TimeUnit.MILLISECONDS));
+        assertEquals(warmup.getQueries(), meterRegistry.get("vacation.warmup.queries").gauge().value());
+    }
+
+    @Test
+    void run_stopsRepeatingAtMaxDuration() {
+        StartupWarmup bounded = new StartupWarmup(vacationService, employeeRepository, requestRepository,
+                tenantRegistry, queryTracer, true, 1000, 50, Duration.ZERO);
+        bounded.run(null);
+        assertTrue(bounded.getQueries() <= 2, "queries: " + bounded.getQueries()); // the initial loads only, no repetitions
+    }
+}
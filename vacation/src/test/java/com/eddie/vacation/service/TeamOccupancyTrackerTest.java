@@ -0,0 +1,104 @@
+package com.eddie.vacation.service;
+
+import com.eddie.vacation.event.EmployeeChangedEvent;
+import com.eddie.vacation.exception.InsufficientCoverageException;
+import com.eddie.vacation.model.VacationRequest;
+import com.eddie.vacation.repository.VacationRequestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TeamOccupancyTrackerTest {
+
+    private VacationRequestRepository requestRepository;
+    private TeamOccupancyTracker tracker;
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        requestRepository = mock(VacationRequestRepository.class);
+        WorkingDayCalendar calendar = new WorkingDayCalendar(new ByteArrayResource(new byte[0]), "ZA");
+        tracker = new TeamOccupancyTracker(requestRepository, calendar);
+        monday = LocalDate.now().plusDays(7).with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+    }
+
+    @Test
+    void reserve_loadsApprovedAbsencesOnce() {
+        VacationRequest approved = new VacationRequest();
+        approved.setVacationStartDate(monday);
+        approved.setVacationEndDate(monday.plusDays(2));
+        when(requestRepository.findApprovedForDepartmentFrom(eq(1L), any())).thenReturn(List.of(approved));
+
+        tracker.reserve(1L, null, monday.plusDays(2), monday.plusDays(4), 2);
+        tracker.reserve(1L, null, monday.plusDays(3), monday.plusDays(4), 2);
+
+        assertEquals(2, tracker.absentOn(1L, monday.plusDays(2)));
+        assertEquals(2, tracker.absentOn(1L, monday.plusDays(4)));
+        verify(requestRepository, times(1)).findApprovedForDepartmentFrom(eq(1L), any());
+    }
+
+    @Test
+    void reserve_overCapacity_throwsAndBooksNothing() {
+        when(requestRepository.findApprovedForDepartmentFrom(eq(1L), any())).thenReturn(List.of());
+        tracker.reserve(1L, null, monday, monday.plusDays(1), 1);
+
+        assertThrows(InsufficientCoverageException.class,
+                () -> tracker.reserve(1L, null, monday.plusDays(1), monday.plusDays(3), 1));
+        assertEquals(0, tracker.absentOn(1L, monday.plusDays(2)));
+    }
+
+    @Test
+    void reserve_ignoresWeekends() {
+        when(requestRepository.findApprovedForDepartmentFrom(eq(1L), any())).thenReturn(List.of());
+        LocalDate saturday = monday.plusDays(5);
+        tracker.reserve(1L, null, saturday, saturday.plusDays(1), 1);
+
+        assertDoesNotThrow(() -> tracker.reserve(1L, null, saturday, saturday.plusDays(1), 1));
+    }
+
+    @Test
+    void release_freesDays() {
+        when(requestRepository.findApprovedForDepartmentFrom(eq(1L), any())).thenReturn(List.of());
+        tracker.reserve(1L, null, monday, monday.plusDays(1), 1);
+        tracker.release(1L, monday, monday.plusDays(1));
+
+        assertEquals(0, tracker.absentOn(1L, monday));
+        assertDoesNotThrow(() -> tracker.reserve(1L, null, monday, monday, 1));
+    }
+
+    @Test
+    void employeeMovedTeams_bothTeamsReload() {
+        when(requestRepository.findApprovedForDepartmentFrom(any(), any())).thenReturn(List.of());
+        tracker.reserve(1L, null, monday, monday, 5);
+        tracker.reserve(2L, null, monday, monday, 5);
+        tracker.reserve(3L, null, monday, monday, 5);
+
+        tracker.onEmployeeChanged(new EmployeeChangedEvent(10L, 3L, 3L, List.of())); // renamed, same team
+        tracker.onEmployeeChanged(new EmployeeChangedEvent(11L, 1L, 2L, List.of()));
+
+        assertEquals(0, tracker.absentOn(1L, monday));
+        assertEquals(0, tracker.absentOn(2L, monday));
+        assertEquals(1, tracker.absentOn(3L, monday));
+    }
+
+    @Test
+    void reserve_dropsDaysBeforeToday() {
+        when(requestRepository.findApprovedForDepartmentFrom(eq(1L), any())).thenReturn(List.of());
+        LocalDate today = LocalDate.now();
+        tracker.reserve(1L, null, today.minusDays(3), today, 5); // approving a request that already started
+        tracker.reserve(1L, null, monday, monday, 5);
+
+        assertEquals(0, tracker.absentOn(1L, today.minusDays(3)));
+        assertEquals(1, tracker.absentOn(1L, today));
+    }
+}
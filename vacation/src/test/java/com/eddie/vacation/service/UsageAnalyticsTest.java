@@ -0,0 +1,119 @@
+package com.eddie.vacation.service;
+
+import com.eddie.vacation.TestEmployees;
+import com.eddie.vacation.dto.UsageReportDto;
+import com.eddie.vacation.event.VacationRequestChangedEvent;
+import com.eddie.vacation.model.ArchivedVacationRequest;
+import com.eddie.vacation.model.Employee;
+import com.eddie.vacation.model.VacationRequest;
+import com.eddie.vacation.repository.ArchivedVacationRequestRepository;
+import com.eddie.vacation.repository.EmployeeRepository;
+import com.eddie.vacation.repository.VacationRequestRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class UsageAnalyticsTest {
+
+    private static final int YEAR = 2031; // nothing else in the shared database starts then
+    private static final LocalDateTime CREATED = LocalDateTime.of(2031, 3, 1, 9, 0);
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private VacationRequestRepository requestRepository;
+
+    @Autowired
+    private ArchivedVacationRequestRepository archiveRepository;
+
+    @Autowired
+    private WorkingDayCalendar workingDayCalendar;
+
+    @Test
+    void yearReport_combinesGroupedCountsAndParallelReduction() {
+        Employee manager = employeeRepository.save(TestEmployees.reportingTo("Analytics Employee", null));
+        Employee employee = employeeRepository.save(TestEmployees.reportingTo("Analytics Employee", manager));
+        save(employee, manager, "approved", LocalDate.of(YEAR, 6, 2), 10);
+        save(employee, manager, "rejected", LocalDate.of(YEAR, 7, 7), 20);
+        save(employee, null, "pending", LocalDate.of(YEAR, 8, 4), 0);
+        Employee colleague = employeeRepository.save(TestEmployees.reportingTo("Analytics Employee", manager));
+        save(colleague, manager, "approved", LocalDate.of(YEAR + 1, 1, 5), 5); // other year
+        archive(employee, manager, LocalDate.of(YEAR, 6, 23), 30);
+
+        // pages of two rows and two workers, so reductions are split and merged
+        UsageReportDto report = analytics(2).getYearReport(YEAR);
+
+        UsageReportDto.EmployeeUsage usage = report.getEmployees().stream()
+                .filter(u -> u.getEmployeeId().equals(employee.getId())).findFirst().orElseThrow();
+        assertEquals(4, usage.getRequests());
+        assertEquals(2, usage.getApproved());
+        assertEquals(1, usage.getRejected());
+        assertEquals(1, usage.getPending());
+        assertEquals(workingDays(LocalDate.of(YEAR, 6, 2)) + workingDays(LocalDate.of(YEAR, 6, 23)), usage.getDaysTaken());
+        assertEquals(2.0 / 3, usage.getApprovalRate(), 1e-9);
+        assertEquals(20.0, usage.getAverageHoursToDecision(), 1e-9);
+
+        UsageReportDto.ManagerUsage decisions = report.getManagers().stream()
+                .filter(u -> u.getManagerId().equals(manager.getId())).findFirst().orElseThrow();
+        assertEquals(3, decisions.getDecisions());
+        assertEquals(1, decisions.getRejected());
+        assertEquals(20.0, decisions.getAverageHoursToDecision(), 1e-9);
+    }
+
+    @Test
+    void yearReport_cachedUntilRequestOfThatYearChanges() {
+        UsageAnalytics analytics = analytics(100);
+        UsageReportDto first = analytics.getYearReport(YEAR);
+
+        analytics.onRequestChanged(new VacationRequestChangedEvent(1L, 1L, "pending", "approved",
+                LocalDate.of(YEAR + 1, 1, 1), LocalDate.of(YEAR + 1, 1, 2), LocalDateTime.now()));
+        assertSame(first, analytics.getYearReport(YEAR));
+
+        analytics.onRequestChanged(new VacationRequestChangedEvent(1L, 1L, "pending", "approved",
+                LocalDate.of(YEAR, 1, 1), LocalDate.of(YEAR, 1, 2), LocalDateTime.now()));
+        assertNotSame(first, analytics.getYearReport(YEAR));
+        assertThrows(IllegalArgumentException.class, () -> analytics.getYearReport(10_000));
+    }
+
+    private UsageAnalytics analytics(int pageSize) {
+        return new UsageAnalytics(requestRepository, archiveRepository, workingDayCalendar,
+                new ReadCoalescer(0), pageSize, 2);
+    }
+
+    private long workingDays(LocalDate start) {
+        return workingDayCalendar.countWorkingDays(null, start, start.plusDays(4));
+    }
+
+    private void save(Employee author, Employee resolvedBy, String status, LocalDate start, int hoursToDecision) {
+        VacationRequest request = new VacationRequest();
+        request.setAuthor(author);
+        request.setResolvedBy(resolvedBy);
+        request.setStatus(status);
+        request.setRequestCreatedAt(CREATED);
+        request.setResolvedAt(resolvedBy == null ? null : CREATED.plusHours(hoursToDecision));
+        request.setVacationStartDate(start);
+        request.setVacationEndDate(start.plusDays(4));
+        requestRepository.save(request);
+    }
+
+    private void archive(Employee author, Employee resolvedBy, LocalDate start, int hoursToDecision) {
+        ArchivedVacationRequest archived = new ArchivedVacationRequest();
+        archived.setId(900_000_000L + author.getId()); // archived rows keep ids the live table no longer uses
+        archived.setAuthorId(author.getId());
+        archived.setStatus("approved");
+        archived.setResolvedById(resolvedBy.getId());
+        archived.setRequestCreatedAt(CREATED);
+        archived.setResolvedAt(CREATED.plusHours(hoursToDecision));
+        archived.setVacationStartDate(start);
+        archived.setVacationEndDate(start.plusDays(4));
+        archived.setArchivedAt(LocalDateTime.now());
+        archiveRepository.save(archived);
+    }
+}
@@ -0,0 +1,81 @@
+package com.eddie.vacation.service;
+
+import com.eddie.vacation.TestEmployees;
+import com.eddie.vacation.model.Employee;
+import com.eddie.vacation.model.VacationRequest;
+import com.eddie.vacation.repository.ArchivedVacationRequestRepository;
+import com.eddie.vacation.repository.EmployeeRepository;
+import com.eddie.vacation.repository.VacationRequestRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class VacationRequestArchiverTest {
+
+    private static final LocalDate CUTOFF = LocalDate.of(2000, 1, 1); // older than anything the app seeds
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private VacationRequestRepository requestRepository;
+
+    @Autowired
+    private ArchivedVacationRequestRepository archiveRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private VacationService vacationService;
+
+    @Test
+    void archiveEndedBefore_movesResolvedHistoryInBatches() {
+        Employee employee = employeeRepository.save(TestEmployees.employee("Archived Employee"));
+        Employee manager = employeeRepository.findById(2L).orElseThrow();
+        VacationRequest approved = save(employee, manager, "approved", CUTOFF.minusYears(1));
+        VacationRequest rejected = save(employee, manager, "rejected", CUTOFF.minusYears(2));
+        VacationRequest unresolved = save(employee, null, "pending", CUTOFF.minusYears(3));
+        VacationRequest recent = save(employee, manager, "approved", CUTOFF.plusDays(10));
+        VacationRequest third = save(employee, manager, "approved", CUTOFF.minusDays(5));
+
+        // batch of 2 forces more than one transaction
+        VacationRequestArchiver archiver = new VacationRequestArchiver(requestRepository, archiveRepository,
+                transactionManager, eventPublisher, 12, 2);
+
+        assertEquals(3, archiver.archiveEndedBefore(CUTOFF));
+
+        List<Long> live = requestRepository.findByAuthor(employee).stream().map(VacationRequest::getId).toList();
+        assertEquals(List.of(unresolved.getId(), recent.getId()), live.stream().sorted().toList());
+        assertTrue(archiveRepository.existsById(approved.getId()));
+        assertTrue(archiveRepository.existsById(rejected.getId()));
+        assertTrue(archiveRepository.existsById(third.getId()));
+
+        List<VacationRequest> history = vacationService.getRequestHistoryByEmployee(employee.getId(), "approved");
+        assertEquals(3, history.size());
+        assertTrue(history.stream().allMatch(r -> employee.getId().equals(r.getAuthor().getId())));
+
+        assertEquals(0, archiver.archiveEndedBefore(CUTOFF)); // nothing left to move
+    }
+
+    private VacationRequest save(Employee author, Employee resolvedBy, String status, LocalDate endDate) {
+        VacationRequest request = new VacationRequest();
+        request.setAuthor(author);
+        request.setResolvedBy(resolvedBy);
+        request.setStatus(status);
+        request.setVacationStartDate(endDate.minusDays(4));
+        request.setVacationEndDate(endDate);
+        return requestRepository.save(request);
+    }
+}
@@ -0,0 +1,122 @@
+package com.eddie.vacation.service;
+
+import com.eddie.vacation.TestEmployees;
+import com.eddie.vacation.dto.SubmissionStatusDto;
+import com.eddie.vacation.dto.VacationRequestDto;
+import com.eddie.vacation.model.Employee;
+import com.eddie.vacation.model.VacationRequest;
+import com.eddie.vacation.repository.EmployeeRepository;
+import com.eddie.vacation.repository.VacationRequestRepository;
+import com.eddie.vacation.tenant.TenantContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class VacationRequestIntakeTest {
+
+    // a Monday well ahead, so every period below has working days
+    private static final LocalDate MONDAY = LocalDate.now().plusWeeks(8).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+    @Autowired
+    private VacationRequestIntake intake;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private VacationRequestRepository requestRepository;
+
+    @Test
+    void process_batch_appliesCreateRulesInQueueOrder() {
+        Employee alice = employeeRepository.save(TestEmployees.employee("Intake Employee", 30));
+        Employee bob = employeeRepository.save(TestEmployees.employee("Intake Employee", 2));
+
+        var first = submission(alice.getId(), MONDAY, MONDAY.plusDays(2));
+        var overlapsFirst = submission(alice.getId(), MONDAY.plusDays(1), MONDAY.plusDays(3));
+        var second = submission(alice.getId(), MONDAY.plusWeeks(1), MONDAY.plusWeeks(1).plusDays(1));
+        var tooLong = submission(bob.getId(), MONDAY, MONDAY.plusDays(4));
+        var unknown = submission(-1L, MONDAY, MONDAY.plusDays(1));
+
+        intake.process(List.of(first, overlapsFirst, second, tooLong, unknown));
+
+        assertCreated(first.toDto(), alice, MONDAY);
+        assertCreated(second.toDto(), alice, MONDAY.plusWeeks(1));
+        assertRejected(overlapsFirst.toDto(), "Vacation dates overlap with an existing request");
+        assertRejected(tooLong.toDto(), "Not enough vacation days remaining");
+        assertRejected(unknown.toDto(), "Employee not found");
+        assertEquals(2, requestRepository.findByAuthor(alice).size());
+        assertTrue(requestRepository.findByAuthor(bob).isEmpty());
+    }
+
+    @Test
+    void process_overlapWithExistingRequest_isRejected() {
+        Employee employee = employeeRepository.save(TestEmployees.employee("Intake Employee", 30));
+        VacationRequest existing = new VacationRequest();
+        existing.setAuthor(employee);
+        existing.setVacationStartDate(MONDAY);
+        existing.setVacationEndDate(MONDAY.plusDays(2));
+        requestRepository.save(existing);
+
+        var overlapping = submission(employee.getId(), MONDAY.plusDays(2), MONDAY.plusDays(3));
+        intake.process(List.of(overlapping));
+
+        assertRejected(overlapping.toDto(), "Vacation dates overlap with an existing request");
+        assertEquals(1, requestRepository.findByAuthor(employee).size());
+    }
+
+    @Test
+    void process_mixedTenants_storesEachRequestForItsSubmitter() {
+        Employee acme = inTenant("acme", () -> employeeRepository.save(TestEmployees.employee("Intake Employee", 30)));
+        Employee globex = inTenant("globex", () -> employeeRepository.save(TestEmployees.employee("Intake Employee", 30)));
+        var fromAcme = inTenant("acme", () -> submission(acme.getId(), MONDAY, MONDAY.plusDays(1)));
+        var fromGlobex = inTenant("globex", () -> submission(globex.getId(), MONDAY, MONDAY.plusDays(1)));
+        var crossTenant = inTenant("globex", () -> submission(acme.getId(), MONDAY.plusWeeks(1), MONDAY.plusWeeks(1).plusDays(1)));
+
+        intake.process(List.of(fromAcme, fromGlobex, crossTenant)); // one batch, as the worker drains it
+
+        assertEquals(VacationRequestIntake.CREATED, fromAcme.toDto().getStatus());
+        assertEquals(VacationRequestIntake.CREATED, fromGlobex.toDto().getStatus());
+        assertRejected(crossTenant.toDto(), "Employee not found");
+        assertEquals("acme", inTenant("acme", () -> requestRepository.findById(fromAcme.toDto().getRequestId()))
+                .orElseThrow().getTenantId());
+        assertTrue(inTenant("acme", () -> requestRepository.findById(fromGlobex.toDto().getRequestId())).isEmpty());
+    }
+
+    private void assertCreated(SubmissionStatusDto status, Employee author, LocalDate start) {
+        assertEquals(VacationRequestIntake.CREATED, status.getStatus());
+        VacationRequest request = requestRepository.findById(status.getRequestId()).orElseThrow();
+        assertEquals(author.getId(), request.getAuthor().getId());
+        assertEquals(start, request.getVacationStartDate());
+        assertEquals("pending", request.getStatus());
+    }
+
+    private static void assertRejected(SubmissionStatusDto status, String message) {
+        assertEquals(VacationRequestIntake.REJECTED, status.getStatus());
+        assertEquals(message, status.getMessage());
+        assertNull(status.getRequestId());
+    }
+
+    private static <T> T inTenant(String tenant, Supplier<T> work) {
+        try (TenantContext.Scope scope = TenantContext.enter(tenant)) {
+            return work.get();
+        }
+    }
+
+    private static VacationRequestIntake.Submission submission(Long authorId, LocalDate start, LocalDate end) {
+        VacationRequestDto dto = new VacationRequestDto();
+        dto.setAuthorId(authorId);
+        dto.setVacationStartDate(start);
+        dto.setVacationEndDate(end);
+        return new VacationRequestIntake.Submission(UUID.randomUUID().toString(), dto);
+    }
+}
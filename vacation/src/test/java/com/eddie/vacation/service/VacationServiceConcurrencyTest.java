@@ -0,0 +1,117 @@
+package com.eddie.vacation.service;
+
+import com.eddie.vacation.TestEmployees;
+import com.eddie.vacation.dto.VacationRequestDto;
+import com.eddie.vacation.model.Employee;
+import com.eddie.vacation.repository.EmployeeRepository;
+import com.eddie.vacation.repository.VacationRequestRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class VacationServiceConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private VacationService vacationService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private VacationRequestRepository requestRepository;
+
+    @Autowired
+    private EmployeeWriteLocks employeeLocks;
+
+    @Test
+    void createRequest_concurrentDuplicates_onlyOneInserted() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            Employee employee = employeeRepository.save(TestEmployees.employee("Concurrent Employee"));
+            LocalDate start = LocalDate.now().plusDays(30);
+
+            List<Future<Boolean>> results = submitConcurrently(() -> {
+                VacationRequestDto dto = new VacationRequestDto();
+                dto.setAuthorId(employee.getId());
+                dto.setVacationStartDate(start);
+                dto.setVacationEndDate(start.plusDays(4));
+                vacationService.createRequest(dto);
+                return true;
+            });
+
+            int created = 0;
+            for (Future<Boolean> result : results) {
+                try {
+                    result.get(30, TimeUnit.SECONDS);
+                    created++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(IllegalArgumentException.class, e.getCause()); // overlap rejected
+                }
+            }
+
+            assertEquals(1, created, "round " + round);
+            assertEquals(1, requestRepository.findByAuthor(employee).size(), "round " + round);
+        }
+        assertEquals(0, employeeLocks.activeLocks());
+    }
+
+    @Test
+    void createRequest_differentEmployees_allSucceed() throws Exception {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            employees.add(employeeRepository.save(TestEmployees.employee("Concurrent Employee")));
+        }
+        AtomicInteger next = new AtomicInteger();
+        LocalDate start = LocalDate.now().plusDays(30);
+
+        List<Future<Boolean>> results = submitConcurrently(() -> {
+            VacationRequestDto dto = new VacationRequestDto();
+            dto.setAuthorId(employees.get(next.getAndIncrement()).getId());
+            dto.setVacationStartDate(start);
+            dto.setVacationEndDate(start.plusDays(4));
+            vacationService.createRequest(dto);
+            return true;
+        });
+
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get(30, TimeUnit.SECONDS));
+        }
+    }
+
+    private List<Future<Boolean>> submitConcurrently(Callable<Boolean> task)
+            throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                ready.countDown();
+                go.await();
+                return task.call();
+            }));
+        }
+        ready.await();
+        go.countDown(); // release every thread at once
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+        return results;
+    }
+}
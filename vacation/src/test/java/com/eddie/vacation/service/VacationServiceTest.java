@@ -1,10 +1,17 @@
 package com.eddie.vacation.service;
 
+import com.eddie.vacation.dto.RequestStatusUpdateDto;
 import com.eddie.vacation.dto.VacationRequestDto;
+import com.eddie.vacation.event.VacationRequestChangedEvent;
 import com.eddie.vacation.exception.EmployeeNotFoundException;
+import com.eddie.vacation.exception.InsufficientCoverageException;
 import com.eddie.vacation.exception.InsufficientVacationDaysException;
+import com.eddie.vacation.exception.UnauthorizedException;
+import com.eddie.vacation.model.ArchivedVacationRequest;
+import com.eddie.vacation.model.Department;
 import com.eddie.vacation.model.Employee;
 import com.eddie.vacation.model.VacationRequest;
+import com.eddie.vacation.repository.ArchivedVacationRequestRepository;
 import com.eddie.vacation.repository.EmployeeRepository;
 import com.eddie.vacation.repository.VacationRequestRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,9 +19,15 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ByteArrayResource;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -28,10 +41,32 @@ class VacationServiceTest {
     @Mock
     private EmployeeRepository employeeRepository;
 
+    @Spy // weekends only, so the expected durations do not depend on the current date's holidays
+    private WorkingDayCalendar workingDayCalendar = new WorkingDayCalendar(new ByteArrayResource(new byte[0]), "ZA");
+
+    @Mock
+    private TeamOccupancyTracker teamOccupancy;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EmployeeWriteLocks employeeLocks;
+
+    @Spy // in-flight sharing only, every call here still reaches the repository
+    private ReadCoalescer readCoalescer = new ReadCoalescer(0);
+
+    @Mock
+    private ArchivedVacationRequestRepository archiveRepository;
+
+    @Mock
+    private AbsenceIndex absenceIndex;
+
     @InjectMocks
     private VacationService vacationService;
 
     private Employee employee;
+    private Employee manager;
     private VacationRequestDto requestDto;
     private VacationRequest request;
 
@@ -43,6 +78,11 @@ class VacationServiceTest {
         employee.setId(1L);
         employee.setRemainingVacationDays(10);
 
+        manager = new Employee();
+        manager.setId(2L);
+        manager.setManager(true);
+        employee.setReportsTo(manager);
+
         requestDto = new VacationRequestDto();
         requestDto.setAuthorId(1L);
         requestDto.setVacationStartDate(LocalDate.now().plusDays(2));
@@ -57,7 +97,7 @@ class VacationServiceTest {
 
     @Test
     void createRequest_success() {
-        when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
+        when(employeeRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(employee));
         when(requestRepository.findEmployeeOverlappingRequests(anyLong(), any(), any()))
                 .thenReturn(Collections.emptyList());
         when(requestRepository.save(any(VacationRequest.class))).thenReturn(request);
@@ -66,11 +106,13 @@ class VacationServiceTest {
 
         assertNotNull(created);
         assertEquals(employee, created.getAuthor());
+        verify(eventPublisher).publishEvent(any(VacationRequestChangedEvent.class));
+        verify(employeeLocks).lockUntilTransactionEnds(1L);
     }
 
     @Test
     void createRequest_employeeNotFound_throwsException() {
-        when(employeeRepository.findById(999L)).thenReturn(Optional.empty());
+        when(employeeRepository.findByIdForUpdate(999L)).thenReturn(Optional.empty());
         requestDto.setAuthorId(999L);
 
         assertThrows(EmployeeNotFoundException.class, () -> vacationService.createRequest(requestDto));
@@ -79,7 +121,7 @@ class VacationServiceTest {
     @Test
     void createRequest_insufficientDays_throwsException() {
         employee.setRemainingVacationDays(1); // less than requested
-        when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
+        when(employeeRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(employee));
 
         assertThrows(InsufficientVacationDaysException.class, () -> vacationService.createRequest(requestDto));
     }
@@ -88,17 +130,90 @@ class VacationServiceTest {
     void createRequest_invalidDates_throwsException() {
         requestDto.setVacationStartDate(LocalDate.now().plusDays(5));
         requestDto.setVacationEndDate(LocalDate.now().plusDays(2));
-        when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
+        when(employeeRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(employee));
 
         assertThrows(IllegalArgumentException.class, () -> vacationService.createRequest(requestDto));
     }
 
     @Test
     void createRequest_overlappingRequests_throwsException() {
-        when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
+        when(employeeRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(employee));
         when(requestRepository.findEmployeeOverlappingRequests(anyLong(), any(), any()))
                 .thenReturn(Collections.singletonList(request)); // simulate overlap
 
         assertThrows(IllegalArgumentException.class, () -> vacationService.createRequest(requestDto));
     }
+
+    @Test
+    void createRequest_weekendOnly_throwsException() {
+        LocalDate saturday = LocalDate.now().plusDays(2).with(TemporalAdjusters.nextOrSame(DayOfWeek.SATURDAY));
+        requestDto.setVacationStartDate(saturday);
+        requestDto.setVacationEndDate(saturday.plusDays(1));
+        when(employeeRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(employee));
+
+        assertThrows(IllegalArgumentException.class, () -> vacationService.createRequest(requestDto));
+        verify(requestRepository, never()).save(any(VacationRequest.class));
+    }
+
+    @Test
+    void getRequestsForManager_returnsOnlyDirectReports() {
+        when(employeeRepository.findById(2L)).thenReturn(Optional.of(manager));
+        when(requestRepository.findPendingRequestsForManager(2L)).thenReturn(List.of(request));
+
+        assertEquals(List.of(request), vacationService.getRequestsForManager(2L));
+        verify(requestRepository, never()).findAllPendingRequests();
+    }
+
+    @Test
+    void getRequestHistoryByEmployee_includesArchivedRequests() {
+        ArchivedVacationRequest archived = new ArchivedVacationRequest();
+        archived.setId(7L);
+        archived.setAuthorId(1L);
+        archived.setResolvedById(2L);
+        archived.setStatus("approved");
+        archived.setVacationStartDate(LocalDate.of(2023, 3, 6));
+        archived.setVacationEndDate(LocalDate.of(2023, 3, 10));
+        when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
+        when(requestRepository.findByAuthor(employee)).thenReturn(List.of(request));
+        when(archiveRepository.findByAuthorId(1L)).thenReturn(List.of(archived));
+        when(employeeRepository.findAllById(any())).thenReturn(List.of(employee, manager));
+
+        List<VacationRequest> history = vacationService.getRequestHistoryByEmployee(1L, null);
+
+        assertEquals(2, history.size());
+        VacationRequest fromArchive = history.get(1);
+        assertEquals(7L, fromArchive.getId());
+        assertEquals(employee, fromArchive.getAuthor());
+        assertEquals(manager, fromArchive.getResolvedBy());
+    }
+
+    @Test
+    void updateRequestStatus_notOwnManager_throwsException() {
+        Employee otherManager = new Employee();
+        otherManager.setId(3L);
+        otherManager.setManager(true);
+        when(requestRepository.findById(1L)).thenReturn(Optional.of(request));
+        when(employeeRepository.findById(3L)).thenReturn(Optional.of(otherManager));
+
+        assertThrows(UnauthorizedException.class,
+                () -> vacationService.updateRequestStatus(1L, new RequestStatusUpdateDto(3L, "approved")));
+    }
+
+    @Test
+    void updateRequestStatus_belowMinimumStaffing_throwsException() {
+        Department department = new Department();
+        department.setId(5L);
+        department.setMinStaffing(2);
+        employee.setDepartment(department);
+        when(requestRepository.findById(1L)).thenReturn(Optional.of(request));
+        when(employeeRepository.findById(2L)).thenReturn(Optional.of(manager));
+        when(employeeRepository.countByDepartmentId(5L)).thenReturn(3L);
+        doThrow(new InsufficientCoverageException("below minimum staffing")).when(teamOccupancy)
+                .reserve(eq(5L), any(), any(), any(), eq(1));
+
+        assertThrows(InsufficientCoverageException.class,
+                () -> vacationService.updateRequestStatus(1L, new RequestStatusUpdateDto(2L, "approved")));
+        assertEquals(10, employee.getRemainingVacationDays());
+        verify(requestRepository, never()).save(any(VacationRequest.class));
+    }
 }
\ No newline at end of file
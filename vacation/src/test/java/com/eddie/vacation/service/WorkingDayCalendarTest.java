@@ -0,0 +1,70 @@
+package com.eddie.vacation.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkingDayCalendarTest {
+
+    private WorkingDayCalendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        String file = "# region,date,name\n"
+                + "ZA,2025-12-16,Day of Reconciliation\n"
+                + "ZA,2025-12-25,Christmas Day\n"
+                + "ZA,2025-12-26,Day of Goodwill\n"
+                + "ZA,2026-01-01,New Year's Day\n"
+                + "GB,2025-12-25,Christmas Day\n";
+        calendar = new WorkingDayCalendar(new ByteArrayResource(file.getBytes(StandardCharsets.UTF_8)), "ZA");
+    }
+
+    @Test
+    void countWorkingDays_skipsWeekends() {
+        // Mon 1 Dec 2025 - Sun 7 Dec 2025
+        assertEquals(5, calendar.countWorkingDays("ZA", LocalDate.of(2025, 12, 1), LocalDate.of(2025, 12, 7)));
+    }
+
+    @Test
+    void countWorkingDays_skipsRegionHolidays() {
+        // Mon 15 Dec - Fri 19 Dec 2025, Tuesday is a holiday
+        assertEquals(4, calendar.countWorkingDays("ZA", LocalDate.of(2025, 12, 15), LocalDate.of(2025, 12, 19)));
+        assertEquals(5, calendar.countWorkingDays("GB", LocalDate.of(2025, 12, 15), LocalDate.of(2025, 12, 19)));
+    }
+
+    @Test
+    void countWorkingDays_spansYearBoundary() {
+        // Mon 22 Dec 2025 - Fri 2 Jan 2026: 10 weekdays minus 25th, 26th and 1st
+        assertEquals(7, calendar.countWorkingDays("ZA", LocalDate.of(2025, 12, 22), LocalDate.of(2026, 1, 2)));
+    }
+
+    @Test
+    void countWorkingDays_nullRegionUsesDefault() {
+        assertEquals(calendar.countWorkingDays("ZA", LocalDate.of(2025, 12, 15), LocalDate.of(2025, 12, 19)),
+                calendar.countWorkingDays(null, LocalDate.of(2025, 12, 15), LocalDate.of(2025, 12, 19)));
+    }
+
+    @Test
+    void countWorkingDays_yearsOutsideFileOnlySkipWeekends() {
+        // Mon 1 Dec 2031 - Fri 26 Dec 2031, no holidays loaded for 2031
+        assertEquals(20, calendar.countWorkingDays("ZA", LocalDate.of(2031, 12, 1), LocalDate.of(2031, 12, 26)));
+    }
+
+    @Test
+    void countWorkingDays_weekendOnly_returnsZero() {
+        assertEquals(0, calendar.countWorkingDays("ZA", LocalDate.of(2025, 12, 6), LocalDate.of(2025, 12, 7)));
+        assertFalse(calendar.isWorkingDay("ZA", LocalDate.of(2025, 12, 25)));
+        assertTrue(calendar.isWorkingDay("ZA", LocalDate.of(2025, 12, 24)));
+    }
+
+    @Test
+    void countWorkingDays_endBeforeStart_throwsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> calendar.countWorkingDays("ZA", LocalDate.of(2025, 12, 7), LocalDate.of(2025, 12, 1)));
+    }
+}
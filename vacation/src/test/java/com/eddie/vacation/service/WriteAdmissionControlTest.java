@@ -0,0 +1,73 @@
+package com.eddie.vacation.service;
+
+import com.eddie.vacation.exception.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteAdmissionControlTest {
+
+    @Test
+    void execute_burstExhausted_rejectsWithRetryAfter() {
+        WriteAdmissionControl control = new WriteAdmissionControl(0.1, 3, 1000, 4, 10);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("ok", control.execute("employee:1", () -> "ok"));
+        }
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> control.execute("employee:1", () -> "ok"));
+
+        assertTrue(ex.getRetryAfterSeconds() >= 1);
+        assertEquals(3, control.getAdmittedCount());
+        assertEquals(1, control.getRateLimitedCount());
+    }
+
+    @Test
+    void execute_clientsHaveSeparateBuckets() {
+        WriteAdmissionControl control = new WriteAdmissionControl(0.1, 1, 1000, 4, 10);
+
+        control.execute("employee:1", () -> "ok");
+
+        assertThrows(TooManyRequestsException.class, () -> control.execute("employee:1", () -> "ok"));
+        assertEquals("ok", control.execute("employee:2", () -> "ok"));
+    }
+
+    @Test
+    void execute_allSlotsBusy_shedsLoad() throws Exception {
+        WriteAdmissionControl control = new WriteAdmissionControl(100, 100, 1000, 1, 10);
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> slow = executor.submit(() -> control.execute("manager:1", () -> {
+                inside.countDown();
+                await(release);
+                return "slow";
+            }));
+            assertTrue(inside.await(5, TimeUnit.SECONDS));
+
+            assertThrows(TooManyRequestsException.class, () -> control.execute("manager:2", () -> "fast"));
+            assertEquals(1, control.getShedCount());
+
+            release.countDown();
+            assertEquals("slow", slow.get(5, TimeUnit.SECONDS));
+            assertEquals("fast", control.execute("manager:2", () -> "fast"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.eddie.vacation.tenant;
+
+import com.eddie.vacation.TestEmployees;
+import com.eddie.vacation.dto.VacationRequestDto;
+import com.eddie.vacation.model.Employee;
+import com.eddie.vacation.model.VacationRequest;
+import com.eddie.vacation.repository.EmployeeRepository;
+import com.eddie.vacation.repository.VacationRequestRepository;
+import com.eddie.vacation.service.VacationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.function.Supplier;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tenantdb", // own context, own database
+        "vacation.tenancy.enabled=true",
+        "vacation.tenancy.tenants=default,acme,globex" })
+@AutoConfigureMockMvc
+class TenantIsolationTest {
+
+    private static final LocalDate MONDAY = LocalDate.now().plusWeeks(8).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private VacationRequestRepository requestRepository;
+
+    @Autowired
+    private VacationService vacationService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void rows_visibleOnlyToTheirTenant() {
+        Employee acme = inTenant("acme", () -> employeeRepository.save(TestEmployees.employee("Tenant Employee")));
+        Employee globex = inTenant("globex", () -> {
+            Employee sameEmail = TestEmployees.employee("Tenant Employee");
+            sameEmail.setEmail(acme.getEmail()); // emails are unique per tenant only
+            return employeeRepository.save(sameEmail);
+        });
+
+        assertTrue(inTenant("acme", () -> employeeRepository.findById(globex.getId())).isEmpty());
+        assertTrue(inTenant("globex", () -> employeeRepository.findById(acme.getId())).isEmpty());
+        assertTrue(employeeRepository.findById(acme.getId()).isEmpty()); // default tenant
+
+        VacationRequest request = inTenant("acme", () -> vacationService.createRequest(dto(acme.getId())));
+        assertTrue(inTenant("acme", () -> vacationService.getPendingRequestsForManager()).stream()
+                .anyMatch(r -> r.getId().equals(request.getId())));
+        assertTrue(inTenant("globex", () -> vacationService.getPendingRequestsForManager()).stream()
+                .noneMatch(r -> r.getId().equals(request.getId())));
+    }
+
+    @Test
+    void api_requiresAKnownTenant() throws Exception {
+        Employee acme = inTenant("acme", () -> employeeRepository.save(TestEmployees.employee("Tenant Employee")));
+
+        mockMvc.perform(get("/api/employee/{id}/remaining-days", acme.getId()))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("{\"message\":\"Missing X-Tenant-Id header\"}"));
+        mockMvc.perform(get("/api/employee/{id}/remaining-days", acme.getId()).header(TenantRegistry.HEADER, "initech"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/employee/{id}/remaining-days", acme.getId()).header(TenantRegistry.HEADER, "globex"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/employee/{id}/remaining-days", acme.getId()).header(TenantRegistry.HEADER, "acme"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Vary", containsString(TenantRegistry.HEADER)))
+                .andExpect(content().string("30"));
+    }
+
+    @Test
+    void etag_neverRevalidatesAnotherTenantsCopy() throws Exception {
+        String etag = mockMvc.perform(get("/api/manager/requests").header(TenantRegistry.HEADER, "acme"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/manager/requests").header(TenantRegistry.HEADER, "acme")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/manager/requests").header(TenantRegistry.HEADER, "globex")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void connections_cappedPerTenant() throws Exception {
+        TenantConnectionPools pools = new TenantConnectionPools(dataSource, 1, 10);
+        Connection held = pools.getConnection("acme");
+        try {
+            assertThrows(SQLTransientConnectionException.class, () -> pools.getConnection("acme"));
+            Connection other = pools.getConnection("globex"); // another tenant is not held up
+            pools.releaseConnection("globex", other);
+            assertEquals(1, pools.inUse("acme"));
+        } finally {
+            pools.releaseConnection("acme", held);
+        }
+        assertEquals(0, pools.inUse("acme"));
+        pools.releaseConnection("acme", pools.getConnection("acme"));
+    }
+
+    private static <T> T inTenant(String tenant, Supplier<T> work) {
+        try (TenantContext.Scope scope = TenantContext.enter(tenant)) {
+            return work.get();
+        }
+    }
+
+    private static VacationRequestDto dto(Long authorId) {
+        VacationRequestDto dto = new VacationRequestDto();
+        dto.setAuthorId(authorId);
+        dto.setVacationStartDate(MONDAY);
+        dto.setVacationEndDate(MONDAY.plusDays(2));
+        return dto;
+    }
+}